@@ -0,0 +1,303 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.IntToLongFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public class GameBenchmarks { // Mikrobenchmarki rdzenia gry: czas na operację i alokacje na operację
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURE_ITERATIONS = 10;
+    private static final long ITERATION_NANOS = 200_000_000L;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long sink; // Wyniki trafiają tutaj, żeby JIT nie usunął mierzonego kodu
+
+    interface Benchmark extends IntToLongFunction, AutoCloseable { //Wykonuje operację n razy i zwraca coś zależnego od wyniku
+        long run(int operations);
+
+        @Override
+        default long applyAsLong(int operations) { //Dla modułu jmh - widzi tylko typy z JDK
+            return run(operations);
+        }
+
+        @Override
+        default void close() { //Sprzątanie po przypadku (np. katalog zapisów)
+        }
+    }
+
+    private static final class Counter { //Numer operacji ciągnie się między wywołaniami run - JMH woła run(1)
+        static final int CYCLE = 3000; // Wielokrotność 30 dni i okresów progów statystyk w przypadkach
+
+        private int next;
+
+        int next() {
+            int i = next;
+            next = i + 1 == CYCLE ? 0 : i + 1;
+            return i;
+        }
+    }
+
+    private static Map<String, Supplier<Benchmark>> fixtures() { //Nazwa -> przypadek, tworzony dopiero przed pomiarem
+        Map<String, Supplier<Benchmark>> fixtures = new LinkedHashMap<>();
+        for (int catalogSize : new int[]{0, 1_000, 10_000}) { // 0 = katalog wydarzeń z gry
+            for (int inventorySize : new int[]{0, 4, 12}) {
+                fixtures.put("getRandomEvent catalog=" + (catalogSize == 0 ? "default" : catalogSize) + " inventory=" + inventorySize,
+                        () -> getRandomEvent(catalogSize, inventorySize));
+            }
+        }
+        for (int catalogSize : new int[]{1_000, 10_000}) {
+            fixtures.put("getRandomEvent catalog=" + catalogSize + " conditions", () -> conditionalGetRandomEvent(catalogSize));
+            fixtures.put("all stat conditions catalog=" + catalogSize, () -> allStatConditions(catalogSize));
+        }
+        fixtures.put("applyChoice", GameBenchmarks::applyChoice);
+        fixtures.put("resetEvents", GameBenchmarks::resetEvents);
+        for (int historySize : new int[]{10, 10_000}) {
+            fixtures.put("saveGame+loadGame history=" + historySize, () -> saveLoadRoundTrip(historySize));
+        }
+        for (int mice : new int[]{5, 500}) {
+            fixtures.put("mouseField step+hit mice=" + mice, () -> mouseFieldFrame(mice));
+        }
+        return fixtures;
+    }
+
+    public static Benchmark fixture(String name) { //Jeden przypadek po nazwie - moduł jmh mierzy ten sam kod co main
+        Supplier<Benchmark> fixture = fixtures().get(name);
+        if (fixture == null) throw new IllegalArgumentException("nieznany benchmark: " + name);
+        return fixture.get();
+    }
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        System.out.printf("%-48s %14s %14s%n", "Benchmark", "ns/op", "B/op");
+
+        for (Map.Entry<String, Supplier<Benchmark>> entry : fixtures().entrySet()) {
+            if (!entry.getKey().contains(filter)) continue;
+            try (Benchmark benchmark = entry.getValue().get()) {
+                run(entry.getKey(), benchmark);
+            }
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    private static void run(String name, Benchmark benchmark) {
+        int operations = calibrate(benchmark);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) sink += benchmark.run(operations);
+
+        long bestNanos = Long.MAX_VALUE;
+        long totalNanos = 0;
+        long totalBytes = 0;
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            sink += benchmark.run(operations);
+            long elapsed = System.nanoTime() - start;
+            totalBytes += THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+            totalNanos += elapsed;
+            bestNanos = Math.min(bestNanos, elapsed);
+        }
+
+        long measured = (long) operations * MEASURE_ITERATIONS;
+        System.out.printf("%-48s %14.1f %14.1f   (najlepsza iteracja %.1f ns/op)%n", name,
+                (double) totalNanos / measured, (double) totalBytes / measured, (double) bestNanos / operations);
+    }
+
+    private static int calibrate(Benchmark benchmark) { //Dobiera liczbę operacji na iterację ~200 ms
+        int operations = 1;
+        while (true) {
+            long start = System.nanoTime();
+            sink += benchmark.run(operations);
+            long elapsed = System.nanoTime() - start;
+            if (elapsed > ITERATION_NANOS / 4 || operations >= 1 << 28) {
+                return (int) Math.max(1, operations * (ITERATION_NANOS / Math.max(1, elapsed)));
+            }
+            operations *= 4;
+        }
+    }
+
+    private static Benchmark getRandomEvent(int catalogSize, int inventorySize) {
+        EventCatalog catalog = catalogSize == 0
+                ? EventCatalog.getDefault()
+                : syntheticCatalog(catalogSize, 7, false);
+        EventManager manager = new EventManager(catalog, new SplittableRandom(1));
+        PlayerState player = new PlayerState();
+        for (int flag = 0; flag < Math.min(inventorySize, FlagRegistry.count()); flag++) {
+            player.addFlag(flag);
+        }
+        Counter counter = new Counter();
+        return operations -> {
+            long checksum = 0;
+            for (int n = 0; n < operations; n++) {
+                int i = counter.next();
+                GameEvent event = manager.getRandomEvent(player);
+                checksum += event.id;
+                if (i % 30 == 29) manager.resetEvents(); // Jak w grze: pula odnawia się co miesiąc
+            }
+            return checksum;
+        };
+    }
+
+    private static final String[] CONDITIONS = { // Warunki z progami, dniami i cooldownem dla katalogów testowych
+            "budget < 1500", "happiness >= 30 && comfort >= 30", "day 10..25", "cooldown 5",
+            "budget > 500 || \"Myszy\"", "!(happiness < 20) && day <= 20 && cooldown 3",
+            "(\"Choroba\" || \"Gołębie\") && comfort < 70"
+    };
+
+    private static EventCatalog syntheticCatalog(int size, long seed, boolean conditions) { //Katalog z losowymi warunkami na zarejestrowanych flagach
+        SplittableRandom random = new SplittableRandom(seed);
+        int flags = FlagRegistry.count();
+        List<GameEvent> events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<GameEvent.Choice> choices = List.of(
+                    new GameEvent.Choice("A", random.nextInt(200), random.nextInt(-5, 6), random.nextInt(-5, 6), null),
+                    new GameEvent.Choice("B", 0, -2, -2, null));
+            GameEvent event = new GameEvent(10_000 + i, "Wydarzenie testowe " + i, choices);
+            event.setRepeatable(random.nextInt(4) != 0);
+            if (random.nextInt(3) == 0) event.requiredFlag = random.nextInt(flags);
+            if (random.nextInt(3) == 0) event.forbiddenFlag = random.nextInt(flags);
+            if (conditions && random.nextInt(2) == 0) event.setCondition(CONDITIONS[random.nextInt(CONDITIONS.length)]);
+            events.add(event);
+        }
+        return new EventCatalog(events);
+    }
+
+    private static Benchmark conditionalGetRandomEvent(int catalogSize) { //Statystyki gracza zmieniają się co losowanie - progi działają
+        EventManager manager = new EventManager(syntheticCatalog(catalogSize, 7, true), new SplittableRandom(1));
+        PlayerState player = new PlayerState();
+        player.addFlag(FlagRegistry.MYSZY);
+        Counter counter = new Counter();
+        return operations -> {
+            long checksum = 0;
+            for (int n = 0; n < operations; n++) {
+                int i = counter.next();
+                player.day = i % 30 + 1;
+                player.budget = (i * 37) % 3000;
+                player.happiness = (i * 13) % 100;
+                GameEvent event = manager.getRandomEvent(player);
+                checksum += event.id;
+                if (i % 30 == 29) manager.resetEvents();
+            }
+            return checksum;
+        };
+    }
+
+    private static Benchmark allStatConditions(int catalogSize) { //Jedna operacja = sprawdzenie warunków wszystkich wydarzeń
+        EventCatalog catalog = syntheticCatalog(catalogSize, 7, true);
+        long inventory = FlagRegistry.bit(FlagRegistry.MYSZY);
+        Counter counter = new Counter();
+        return operations -> {
+            long checksum = 0;
+            for (int n = 0; n < operations; n++) {
+                int i = counter.next();
+                double budget = (i * 37) % 3000;
+                int happiness = (i * 13) % 100;
+                int day = i % 30 + 1;
+                for (int e = 0; e < catalogSize; e++) {
+                    if (catalog.meetsStats(e, inventory, budget, happiness, 50, day)) checksum++;
+                }
+            }
+            return checksum;
+        };
+    }
+
+    private static Benchmark applyChoice() {
+        GameLogic logic = new GameLogic(new EventManager(new SplittableRandom(1)), false);
+        logic.startNewGame();
+        GameEvent.Choice[] choices = {
+                new GameEvent.Choice("Zakup", 10, 1, -1, "Myszy"),
+                new GameEvent.Choice("Zwrot", -10, -1, 1, null, "Myszy")
+        };
+        Counter counter = new Counter();
+        return operations -> {
+            for (int n = 0; n < operations; n++) {
+                int i = counter.next();
+                logic.applyChoice(choices[i & 1]);
+            }
+            return (long) logic.getPlayer().budget;
+        };
+    }
+
+    private static Benchmark resetEvents() {
+        EventManager manager = new EventManager(new SplittableRandom(1));
+        PlayerState player = new PlayerState();
+        return operations -> {
+            long checksum = 0;
+            for (int i = 0; i < operations; i++) {
+                manager.resetEvents();
+                checksum += manager.getRandomEvent(player).id;
+            }
+            return checksum;
+        };
+    }
+
+    private static Benchmark mouseFieldFrame(int mice) { //Jedna klatka minigry: ruch wszystkich myszy i jedno kliknięcie
+        SplittableRandom random = new SplittableRandom(1);
+        MouseField field = new MouseField(760, 460, 48, mice, 90, random);
+        return operations -> {
+            long checksum = 0;
+            for (int i = 0; i < operations; i++) {
+                field.step(1 / 60.0);
+                checksum += field.hit(random.nextInt(760), random.nextInt(460));
+            }
+            return checksum;
+        };
+    }
+
+    private static Benchmark saveLoadRoundTrip(int historySize) { //Migawka, miesiąc wpisów dziennika i odczyt z dysku - na katalogu tymczasowym, nie w saves/ gracza
+        Path root;
+        try {
+            root = Files.createTempDirectory("mw-bench-saves");
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+        SaveSystem.setStore(new FilesystemProfileStore(root));
+        String slot = "benchmark-" + historySize;
+        PlayerState state = new PlayerState();
+        for (int i = 0; i < historySize; i++) state.playedEvents.add(i);
+        state.addFlag(FlagRegistry.MYSZY);
+        List<SaveJournal.Record> month = new ArrayList<>(); // Tury 2..30 dopisane po migawce z początku miesiąca
+        PlayerState turn = state.copy();
+        for (int day = 2; day <= 30; day++) {
+            turn.day = day;
+            month.add(SaveJournal.Record.capture(turn, historySize));
+        }
+        return new Benchmark() {
+            @Override
+            public long run(int operations) {
+                long checksum = 0;
+                for (int n = 0; n < operations; n++) {
+                    SaveSystem.saveGame(slot, state);
+                    SaveSystem.appendTurns(slot, month);
+                    SaveSystem.cache().invalidate(slot); // Inaczej loadGame oddałby stan z pamięci bez dekodowania
+                    PlayerState loaded = SaveSystem.loadGame(slot);
+                    checksum += loaded.day + loaded.playedEvents.size();
+                }
+                return checksum;
+            }
+
+            @Override
+            public void close() {
+                SaveSystem.closeStore();
+                try (Stream<Path> files = Files.walk(root)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+                } catch (IOException error) {
+                    System.out.println("Nie usunięto " + root + ": " + error.getMessage());
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+
+// Te same przypadki co bench/GameBenchmarks, mierzone przez JMH - main dokłada profiler gc (B/op jak w GameBenchmarks).
+// Klasy gry są w pakiecie domyślnym, a JMH wymaga pakietu - przypadek pobieramy przez refleksję raz, przy @Setup.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class GameBenchmark {
+
+    @Param({
+            "getRandomEvent catalog=default inventory=0",
+            "getRandomEvent catalog=default inventory=4",
+            "getRandomEvent catalog=default inventory=12",
+            "getRandomEvent catalog=1000 inventory=0",
+            "getRandomEvent catalog=1000 inventory=4",
+            "getRandomEvent catalog=1000 inventory=12",
+            "getRandomEvent catalog=10000 inventory=0",
+            "getRandomEvent catalog=10000 inventory=4",
+            "getRandomEvent catalog=10000 inventory=12",
+            "getRandomEvent catalog=1000 conditions",
+            "all stat conditions catalog=1000",
+            "getRandomEvent catalog=10000 conditions",
+            "all stat conditions catalog=10000",
+            "applyChoice",
+            "resetEvents",
+            "saveGame+loadGame history=10",
+            "saveGame+loadGame history=10000",
+            "mouseField step+hit mice=5",
+            "mouseField step+hit mice=500"
+    })
+    public String fixture;
+
+    private IntToLongFunction operation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        operation = (IntToLongFunction) Class.forName("GameBenchmarks")
+                .getMethod("fixture", String.class)
+                .invoke(null, fixture);
+    }
+
+    @Benchmark
+    public long run() {
+        return operation.applyAsLong(1);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException { //java -jar benchmarks.jar [opcje JMH]
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(GameBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (operation instanceof AutoCloseable closeable) closeable.close();
+    }
+}
@@ -0,0 +1,399 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Condition { // Warunek wydarzenia zapisany wyrażeniem - parsowany raz, kompilowany do płaskich klauzul
+
+    // Składnia: "Myszy" && !"Choroba" && budget < 500 && (happiness >= 30 || comfort > 50) && day 10..25 && cooldown 5
+    // Flagi w cudzysłowie (nazwy z FlagRegistry), statystyki: budget, happiness, comfort, day (dzień miesiąca),
+    // porównania < <= > >= == !=, zakres "day a..b" (włącznie), "cooldown n" - n dni przerwy po wylosowaniu.
+    // Wyrażenie trafia do postaci "lub" klauzul (DNF): klauzula = wymagane i zabronione flagi + przedział każdej statystyki.
+
+    static final int MAX_CLAUSES = 32; // Więcej oznacza warunek do uproszczenia, nie do liczenia przy każdym losowaniu
+    static final int BOUNDS = 8; // Na klauzulę: [min, max] budżetu, szczęścia, komfortu i dnia
+
+    private static final int BUDGET = 0, HAPPINESS = 2, COMFORT = 4, DAY = 6;
+
+    final String source;
+    final long requiredFlags;   // Flagi wspólne dla wszystkich klauzul - trafiają do masek katalogu
+    final long forbiddenFlags;
+    final Clause[] flagClauses; // Alternatywa na samych flagach - liczona raz na klucz katalogu, null = brak
+    final Clause[] statClauses; // Progi i dni (z flagami z tych samych członów) - przy każdym losowaniu, pusta = brak
+    final int cooldown;         // 0 = bez przerwy
+
+    record Clause(long required, long forbidden, double[] bounds) { //Koniunkcja - granice domknięte, liczby całkowite zaokrąglone do środka
+
+        static Clause any() {
+            double[] bounds = new double[BOUNDS];
+            for (int b = 0; b < BOUNDS; b += 2) {
+                bounds[b] = Double.NEGATIVE_INFINITY;
+                bounds[b + 1] = Double.POSITIVE_INFINITY;
+            }
+            return new Clause(0, 0, bounds);
+        }
+
+        Clause and(Clause other) { //null, gdy sprzeczne
+            if (((required | other.required) & (forbidden | other.forbidden)) != 0) return null;
+            double[] merged = new double[BOUNDS];
+            for (int b = 0; b < BOUNDS; b += 2) {
+                merged[b] = Math.max(bounds[b], other.bounds[b]);
+                merged[b + 1] = Math.min(bounds[b + 1], other.bounds[b + 1]);
+                if (merged[b] > merged[b + 1]) return null;
+            }
+            return new Clause(required | other.required, forbidden | other.forbidden, merged);
+        }
+
+        boolean hasStats() {
+            for (int b = 0; b < BOUNDS; b += 2) {
+                if (bounds[b] != Double.NEGATIVE_INFINITY || bounds[b + 1] != Double.POSITIVE_INFINITY) return true;
+            }
+            return false;
+        }
+
+        boolean matchesFlags(long inventory) {
+            return (inventory & required) == required && (inventory & forbidden) == 0;
+        }
+    }
+
+    private Condition(String source, long requiredFlags, long forbiddenFlags, Clause[] flagClauses, Clause[] statClauses, int cooldown) {
+        this.source = source;
+        this.requiredFlags = requiredFlags;
+        this.forbiddenFlags = forbiddenFlags;
+        this.flagClauses = flagClauses;
+        this.statClauses = statClauses;
+        this.cooldown = cooldown;
+    }
+
+    long flags() { //Wszystkie flagi z warunku - dostają bity klucza katalogu
+        long flags = requiredFlags | forbiddenFlags;
+        if (flagClauses != null) {
+            for (Clause clause : flagClauses) flags |= clause.required | clause.forbidden;
+        }
+        return flags;
+    }
+
+    boolean matchesFlags(long inventory) { //Część zależna tylko od ekwipunku
+        if ((inventory & requiredFlags) != requiredFlags || (inventory & forbiddenFlags) != 0) return false;
+        if (flagClauses == null) return true;
+        for (Clause clause : flagClauses) {
+            if (clause.matchesFlags(inventory)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    public static Condition parse(String expression) { //IllegalArgumentException z pozycją błędu
+        Parser parser = new Parser(expression);
+        Node root = parser.parseOr();
+        parser.skipSpaces();
+        if (parser.pos < expression.length()) throw parser.error("nieoczekiwany znak '" + expression.charAt(parser.pos) + "'");
+
+        List<Node> conjuncts = new ArrayList<>();
+        flatten(root, conjuncts);
+        int cooldown = 0;
+        List<Clause> flagPart = List.of(Clause.any());
+        List<Clause> statPart = List.of(Clause.any());
+        for (Node term : conjuncts) {
+            if (term instanceof Cooldown c) {
+                cooldown = Math.max(cooldown, c.days());
+            } else if (hasCooldown(term)) {
+                throw new IllegalArgumentException("Błąd w warunku \"" + expression + "\": cooldown tylko na najwyższym poziomie (połączony &&)");
+            } else if (usesStats(term)) {
+                statPart = and(statPart, dnf(term, false, expression), expression);
+            } else {
+                flagPart = and(flagPart, dnf(term, false, expression), expression);
+            }
+        }
+
+        if (flagPart.isEmpty() || statPart.isEmpty()) { //Sprzeczny warunek - wydarzenie nigdy nie wypadnie
+            return new Condition(expression, 0, 0, null, new Clause[]{never()}, cooldown);
+        }
+        long required = -1L, forbidden = -1L; // Flagi wspólne wszystkim alternatywom - do masek katalogu
+        for (Clause clause : flagPart) {
+            required &= clause.required;
+            forbidden &= clause.forbidden;
+        }
+        Clause[] flagClauses = flagPart.size() == 1 ? null : flagPart.toArray(new Clause[0]);
+        Clause[] statClauses = statPart.size() == 1 && !statPart.get(0).hasStats() && statPart.get(0).required == 0
+                && statPart.get(0).forbidden == 0 ? new Clause[0] : statPart.toArray(new Clause[0]);
+        return new Condition(expression, required, forbidden, flagClauses, statClauses, cooldown);
+    }
+
+    private static Clause never() {
+        Clause clause = Clause.any();
+        clause.bounds[BUDGET] = Double.POSITIVE_INFINITY;
+        clause.bounds[BUDGET + 1] = Double.NEGATIVE_INFINITY;
+        return clause;
+    }
+
+    private static void flatten(Node node, List<Node> out) { //Koniunkcja z najwyższego poziomu jako lista
+        if (node instanceof And and) {
+            for (Node term : and.terms()) flatten(term, out);
+        } else {
+            out.add(node);
+        }
+    }
+
+    private static boolean usesStats(Node node) {
+        return switch (node) {
+            case And and -> and.terms().stream().anyMatch(Condition::usesStats);
+            case Or or -> or.terms().stream().anyMatch(Condition::usesStats);
+            case Not not -> usesStats(not.term());
+            case Compare compare -> true;
+            case Flag flag -> false;
+            case Cooldown cooldown -> false;
+        };
+    }
+
+    private static boolean hasCooldown(Node node) {
+        return switch (node) {
+            case And and -> and.terms().stream().anyMatch(Condition::hasCooldown);
+            case Or or -> or.terms().stream().anyMatch(Condition::hasCooldown);
+            case Not not -> hasCooldown(not.term());
+            case Cooldown cooldown -> true;
+            default -> false;
+        };
+    }
+
+    private static List<Clause> dnf(Node node, boolean negated, String expression) { //Negacje zepchnięte do liści (prawa de Morgana)
+        switch (node) {
+            case Not not:
+                return dnf(not.term(), !negated, expression);
+            case And and: {
+                if (negated) return or(and.terms(), true, expression);
+                List<Clause> result = List.of(Clause.any());
+                for (Node term : and.terms()) result = and(result, dnf(term, false, expression), expression);
+                return result;
+            }
+            case Or or: {
+                if (!negated) return or(or.terms(), false, expression);
+                List<Clause> result = List.of(Clause.any());
+                for (Node term : or.terms()) result = and(result, dnf(term, true, expression), expression);
+                return result;
+            }
+            case Flag flag: {
+                Clause any = Clause.any();
+                return List.of(negated ? new Clause(0, flag.bit(), any.bounds) : new Clause(flag.bit(), 0, any.bounds));
+            }
+            case Compare compare:
+                return compare.clauses(negated);
+            case Cooldown cooldown:
+                throw new IllegalStateException("cooldown poza najwyższym poziomem");
+        }
+    }
+
+    private static List<Clause> or(List<Node> terms, boolean negated, String expression) {
+        List<Clause> result = new ArrayList<>();
+        for (Node term : terms) result.addAll(dnf(term, negated, expression));
+        if (result.size() > MAX_CLAUSES) throw tooComplex(expression);
+        return result;
+    }
+
+    private static List<Clause> and(List<Clause> left, List<Clause> right, String expression) { //Iloczyn alternatyw - sprzeczne klauzule odpadają
+        List<Clause> result = new ArrayList<>();
+        for (Clause a : left) {
+            for (Clause b : right) {
+                Clause both = a.and(b);
+                if (both != null) result.add(both);
+            }
+        }
+        if (result.size() > MAX_CLAUSES) throw tooComplex(expression);
+        return result;
+    }
+
+    private static IllegalArgumentException tooComplex(String expression) {
+        return new IllegalArgumentException("Błąd w warunku \"" + expression + "\": ponad " + MAX_CLAUSES + " alternatyw - uprość wyrażenie");
+    }
+
+    private sealed interface Node permits And, Or, Not, Flag, Compare, Cooldown { //Drzewo tylko na czas kompilacji
+    }
+
+    private record And(List<Node> terms) implements Node {
+    }
+
+    private record Or(List<Node> terms) implements Node {
+    }
+
+    private record Not(Node term) implements Node {
+    }
+
+    private record Flag(long bit) implements Node {
+    }
+
+    private record Cooldown(int days) implements Node {
+    }
+
+    private enum Operator { LESS, LESS_EQUAL, GREATER, GREATER_EQUAL, EQUAL, NOT_EQUAL }
+
+    private record Compare(int stat, Operator operator, double value, double value2) implements Node { //value2 tylko dla zakresu dni (EQUAL = a..b)
+
+        List<Clause> clauses(boolean negated) { //Negacja = odwrócony operator, zakres dni - dwa przedziały na zewnątrz
+            if (negated) {
+                return switch (operator) {
+                    case LESS -> new Compare(stat, Operator.GREATER_EQUAL, value, value2).clauses(false);
+                    case LESS_EQUAL -> new Compare(stat, Operator.GREATER, value, value2).clauses(false);
+                    case GREATER -> new Compare(stat, Operator.LESS_EQUAL, value, value2).clauses(false);
+                    case GREATER_EQUAL -> new Compare(stat, Operator.LESS, value, value2).clauses(false);
+                    case NOT_EQUAL -> new Compare(stat, Operator.EQUAL, value, value2).clauses(false);
+                    case EQUAL -> List.of(interval(Double.NEGATIVE_INFINITY, below(value)),
+                            interval(above(value2), Double.POSITIVE_INFINITY));
+                };
+            }
+            return switch (operator) {
+                case LESS -> List.of(interval(Double.NEGATIVE_INFINITY, below(value)));
+                case LESS_EQUAL -> List.of(interval(Double.NEGATIVE_INFINITY, atMost(value)));
+                case GREATER -> List.of(interval(above(value), Double.POSITIVE_INFINITY));
+                case GREATER_EQUAL -> List.of(interval(atLeast(value), Double.POSITIVE_INFINITY));
+                case EQUAL -> List.of(interval(atLeast(value), atMost(value2)));
+                case NOT_EQUAL -> List.of(interval(Double.NEGATIVE_INFINITY, below(value)),
+                        interval(above(value), Double.POSITIVE_INFINITY));
+            };
+        }
+
+        private Clause interval(double low, double high) {
+            Clause clause = Clause.any();
+            clause.bounds[stat] = low;
+            clause.bounds[stat + 1] = high;
+            return clause;
+        }
+
+        private double below(double v) { //x < v
+            return stat == BUDGET ? Math.nextDown(v) : Math.ceil(v) - 1;
+        }
+
+        private double atMost(double v) {
+            return stat == BUDGET ? v : Math.floor(v);
+        }
+
+        private double above(double v) {
+            return stat == BUDGET ? Math.nextUp(v) : Math.floor(v) + 1;
+        }
+
+        private double atLeast(double v) {
+            return stat == BUDGET ? v : Math.ceil(v);
+        }
+    }
+
+    private static final class Parser { //Zejście rekurencyjne: or := and ('||' and)*, and := unary ('&&' unary)*
+        final String text;
+        int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Node parseOr() {
+            List<Node> terms = new ArrayList<>();
+            terms.add(parseAnd());
+            while (accept("||")) terms.add(parseAnd());
+            return terms.size() == 1 ? terms.get(0) : new Or(terms);
+        }
+
+        Node parseAnd() {
+            List<Node> terms = new ArrayList<>();
+            terms.add(parseUnary());
+            while (accept("&&")) terms.add(parseUnary());
+            return terms.size() == 1 ? terms.get(0) : new And(terms);
+        }
+
+        Node parseUnary() {
+            if (accept("!")) return new Not(parseUnary());
+            if (accept("(")) {
+                Node inner = parseOr();
+                if (!accept(")")) throw error("brak ')'");
+                return inner;
+            }
+            skipSpaces();
+            if (pos < text.length() && text.charAt(pos) == '"') {
+                int end = text.indexOf('"', pos + 1);
+                if (end < 0) throw error("niezamknięty cudzysłów");
+                String name = text.substring(pos + 1, end);
+                int flag = FlagRegistry.findId(name);
+                if (flag == FlagRegistry.NONE) throw error("nieznana flaga \"" + name + "\"");
+                pos = end + 1;
+                return new Flag(FlagRegistry.bit(flag));
+            }
+            String word = identifier();
+            switch (word) {
+                case "cooldown": {
+                    double days = number();
+                    if (days != Math.rint(days) || days > Integer.MAX_VALUE) throw error("cooldown musi być całkowitą liczbą dni: " + days);
+                    if (days <= 0) throw error("cooldown musi być dodatni");
+                    return new Cooldown((int) days);
+                }
+                case "day": {
+                    Operator operator = operator();
+                    if (operator != null) {
+                        double value = number();
+                        return new Compare(DAY, operator, value, value);
+                    }
+                    double from = number();
+                    if (!accept("..")) throw error("oczekiwano porównania albo zakresu a..b");
+                    double to = number();
+                    if (to < from) throw error("pusty zakres dni " + (int) from + ".." + (int) to);
+                    return new Compare(DAY, Operator.EQUAL, from, to);
+                }
+                case "budget":
+                case "happiness":
+                case "comfort": {
+                    int stat = word.equals("budget") ? BUDGET : word.equals("happiness") ? HAPPINESS : COMFORT;
+                    Operator operator = operator();
+                    if (operator == null) throw error("oczekiwano porównania po '" + word + "'");
+                    double value = number();
+                    return new Compare(stat, operator, value, value);
+                }
+                default:
+                    throw error(word.isEmpty() ? "oczekiwano warunku" : "nieznane słowo '" + word + "'");
+            }
+        }
+
+        private Operator operator() { //Dłuższe operatory sprawdzane przed krótszymi
+            if (accept("<=")) return Operator.LESS_EQUAL;
+            if (accept(">=")) return Operator.GREATER_EQUAL;
+            if (accept("==")) return Operator.EQUAL;
+            if (accept("!=")) return Operator.NOT_EQUAL;
+            if (accept("<")) return Operator.LESS;
+            if (accept(">")) return Operator.GREATER;
+            return null;
+        }
+
+        private String identifier() {
+            skipSpaces();
+            int start = pos;
+            while (pos < text.length() && Character.isLetter(text.charAt(pos))) pos++;
+            return text.substring(start, pos);
+        }
+
+        private double number() {
+            skipSpaces();
+            int start = pos;
+            if (pos < text.length() && text.charAt(pos) == '-') pos++;
+            while (pos < text.length() && (Character.isDigit(text.charAt(pos))
+                    || text.charAt(pos) == '.' && !text.startsWith("..", pos))) pos++;
+            try {
+                return Double.parseDouble(text.substring(start, pos));
+            } catch (NumberFormatException error) {
+                pos = start;
+                throw error("oczekiwano liczby");
+            }
+        }
+
+        private boolean accept(String token) {
+            skipSpaces();
+            if (!text.startsWith(token, pos)) return false;
+            pos += token.length();
+            return true;
+        }
+
+        void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Błąd w warunku \"" + text + "\" na pozycji " + pos + ": " + message);
+        }
+    }
+}
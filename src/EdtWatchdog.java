@@ -0,0 +1,174 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class EdtWatchdog extends EventQueue { // Mierzy obsługę każdego zdarzenia na EDT i zapisuje stos przy przycięciach
+
+    static final long STALL_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    static final long CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    static final long SUMMARY_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_STACK_FRAMES = 30;
+
+    private final GameMetrics metrics = GameMetrics.getDefault();
+    private final StreamingHistogram window = new StreamingHistogram(); // Bieżące okno podsumowania
+    private volatile StreamingHistogram.Snapshot lastWindow = new StreamingHistogram().snapshot();
+    private final AtomicInteger windowStalls = new AtomicInteger();
+    private volatile int lastWindowStalls;
+
+    private volatile Thread edt;
+    private volatile AWTEvent current;
+    private volatile String currentLabel; // Napis przycisku odczytany na EDT - monitor nie dotyka komponentów
+    private volatile long busySince; // 0 = EDT czeka na zdarzenie (także wewnątrz okna modalnego)
+    private volatile long busySequence;
+
+    // Zdarzenia w trakcie obsługi, tylko EDT - więcej niż jedno, gdy obsługa otworzyła okno modalne z własną pętlą
+    private AWTEvent[] openEvents = new AWTEvent[4];
+    private String[] openLabels = new String[4];
+    private long[] openSequences = new long[4];
+    private long[] openBusy = new long[4]; // Czas obsługi sprzed wejścia w zagnieżdżoną pętlę
+    private int depth;
+    private long nextSequence;
+
+    public static EdtWatchdog install() { //Wywoływane raz przy starcie, przed utworzeniem okien
+        EdtWatchdog watchdog = new EdtWatchdog();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog);
+        Thread monitor = new Thread(watchdog::monitor, "edt-watchdog");
+        monitor.setDaemon(true);
+        monitor.start();
+        return watchdog;
+    }
+
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException { //Czekanie w pętli okna modalnego nie wlicza się do zdarzenia, które je otworzyło
+        long since = busySince;
+        if (since != 0) {
+            busySince = 0;
+            openBusy[depth - 1] += System.nanoTime() - since;
+        }
+        return super.getNextEvent();
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) { //Granice jednej obsługi - zagnieżdżone wywołania pochodzą z pętli okna modalnego
+        edt = Thread.currentThread();
+        begin(event);
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            end();
+        }
+    }
+
+    private void begin(AWTEvent event) {
+        if (depth == openEvents.length) {
+            openEvents = Arrays.copyOf(openEvents, depth * 2);
+            openLabels = Arrays.copyOf(openLabels, depth * 2);
+            openSequences = Arrays.copyOf(openSequences, depth * 2);
+            openBusy = Arrays.copyOf(openBusy, depth * 2);
+        }
+        String label = event.getSource() instanceof AbstractButton button ? button.getText() : null;
+        openEvents[depth] = event;
+        openLabels[depth] = label;
+        openSequences[depth] = ++nextSequence;
+        openBusy[depth] = 0;
+        depth++;
+        show(event, label, nextSequence, System.nanoTime());
+    }
+
+    private void end() {
+        long now = System.nanoTime();
+        long since = busySince;
+        depth--;
+        record(openBusy[depth] + (since == 0 ? 0 : now - since));
+        openEvents[depth] = null;
+        openLabels[depth] = null;
+        if (depth == 0) {
+            busySince = 0;
+            return;
+        }
+        int outer = depth - 1; // Okno modalne zamknięte - zewnętrzne zdarzenie znów jest obsługiwane
+        show(openEvents[outer], openLabels[outer], openSequences[outer], now - openBusy[outer]);
+        openBusy[outer] = 0;
+    }
+
+    private void show(AWTEvent event, String label, long sequence, long since) { //Co widzi monitor
+        busySince = 0;
+        current = event;
+        currentLabel = label;
+        busySequence = sequence;
+        busySince = since;
+    }
+
+    private void record(long duration) {
+        metrics.edtDispatch.record(duration);
+        window.record(duration);
+        if (duration > STALL_THRESHOLD_NANOS) {
+            metrics.edtStall();
+            windowStalls.incrementAndGet();
+        }
+    }
+
+    public StreamingHistogram.Snapshot lastWindow() { //Podsumowanie ostatniego pełnego okna
+        return lastWindow;
+    }
+
+    public int lastWindowStalls() {
+        return lastWindowStalls;
+    }
+
+    private void monitor() {
+        long reportedSequence = -1;
+        long windowStart = System.nanoTime();
+        while (true) {
+            LockSupport.parkNanos(this, CHECK_INTERVAL_NANOS);
+            long now = System.nanoTime();
+
+            long since = busySince;
+            long sequence = busySequence;
+            if (since != 0 && sequence != reportedSequence && now - since > STALL_THRESHOLD_NANOS) {
+                reportedSequence = sequence; // Jeden stos na jedno zdarzenie
+                AWTEvent event = current;
+                String label = currentLabel;
+                StackTraceElement[] stack = edt.getStackTrace();
+                if (busySequence == sequence) reportStall(event, label, now - since, stack);
+            }
+
+            if (now - windowStart >= SUMMARY_INTERVAL_NANOS) {
+                windowStart = now;
+                rotateWindow();
+            }
+        }
+    }
+
+    private void rotateWindow() {
+        StreamingHistogram.Snapshot snapshot = window.snapshot();
+        int stalls = windowStalls.getAndSet(0);
+        window.reset();
+        lastWindow = snapshot;
+        lastWindowStalls = stalls;
+        if (stalls > 0) {
+            System.out.println("EDT w ostatniej minucie: " + stalls + " przycięć, czas obsługi [ns] " + snapshot);
+        }
+    }
+
+    private static void reportStall(AWTEvent event, String label, long nanos, StackTraceElement[] stack) {
+        StringBuilder message = new StringBuilder();
+        message.append("Przycięcie EDT: ").append(TimeUnit.NANOSECONDS.toMillis(nanos)).append(" ms i trwa - ")
+                .append(describe(event, label)).append('\n');
+        for (int i = 0; i < Math.min(stack.length, MAX_STACK_FRAMES); i++) {
+            message.append("\tat ").append(stack[i]).append('\n');
+        }
+        if (stack.length > MAX_STACK_FRAMES) message.append("\t... ").append(stack.length - MAX_STACK_FRAMES).append(" więcej\n");
+        System.out.print(message);
+    }
+
+    static String describe(AWTEvent event, String label) { //Co wywołało obsługę: typ zdarzenia, źródło, akcja
+        if (event == null) return "nieznane zdarzenie";
+        String description = event.getClass().getSimpleName() + " z " + event.getSource().getClass().getSimpleName();
+        if (label != null) description += " \"" + label + "\"";
+        return description + " [" + event.paramString() + "]";
+    }
+}
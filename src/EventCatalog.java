@@ -0,0 +1,473 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class EventCatalog { // Niezmienny katalog wydarzeń - budowany raz na JVM, współdzielony przez wszystkie rozgrywki
+
+    private static final int MAX_CONDITION_FLAGS = 16; // 2^16 możliwych kombinacji flag
+
+    private final GameEvent[] events;
+    private final List<GameEvent> eventList;
+    private final int[] requiredMask;
+    private final int[] forbiddenMask;
+    private final double[][] weights; // [maska przedziałów statystyk][wydarzenie]
+    private final boolean weighted;   // false -> wszystkie wagi równe, losowanie jednostajne
+    private final Condition[] flagConditions; // Alternatywy na flagach - przy budowie zbioru kandydatów, null = brak
+    private final int[] clauseStart;          // Klauzule wydarzenia i: [clauseStart[i], clauseStart[i + 1]), brak = bez warunku
+    private long[] clauseRequired = new long[0];  // Klauzule wszystkich wydarzeń w płaskich tablicach - losowanie bez wywołań wirtualnych
+    private long[] clauseForbidden = new long[0];
+    private double[] clauseBounds = new double[0]; // Condition.BOUNDS liczb na klauzulę
+    private final int[] cooldowns;
+    private final boolean conditional; // true -> losowanie musi sprawdzać klauzule i cooldowny
+
+    private final int[] keyBitOfFlag = new int[FlagRegistry.MAX_FLAGS]; // Flaga z rejestru -> bit klucza (0 = nieistotna)
+    private final int[] flagOfKeyBit = new int[MAX_CONDITION_FLAGS];
+    private int conditionFlags;
+    private final int[][] keyTable = new int[Long.BYTES][256]; // Kompresja maski ekwipunku do klucza, bajt po bajcie
+    private final Map<String, Integer> descriptionIndex = new HashMap<>(); // Tylko do importu starych zapisów
+    private final Map<Integer, Integer> idIndex = new HashMap<>();
+
+    private static class Holder { //Leniwa, bezpieczna wątkowo inicjalizacja
+        static final EventCatalog DEFAULT = new EventCatalog(new DefaultEvents().build());
+    }
+
+    public static EventCatalog getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    public EventCatalog(List<GameEvent> pool) {
+        int n = pool.size();
+        this.events = pool.toArray(new GameEvent[0]);
+        this.eventList = Collections.unmodifiableList(Arrays.asList(events));
+        this.requiredMask = new int[n];
+        this.forbiddenMask = new int[n];
+        this.weights = new double[GameEvent.StatBand.MASKS][n];
+        this.flagConditions = new Condition[n];
+        this.clauseStart = new int[n + 1];
+        this.cooldowns = new int[n];
+        boolean anyWeighted = false;
+        boolean anyConditional = false;
+
+        for (int i = 0; i < n; i++) {
+            GameEvent e = events[i];
+            e.choices = List.copyOf(e.choices);
+            requiredMask[i] = bitFor(e.requiredFlag);
+            forbiddenMask[i] = bitFor(e.forbiddenFlag);
+            anyConditional |= compileCondition(i, e.condition);
+            descriptionIndex.putIfAbsent(e.description, i);
+            if (idIndex.putIfAbsent(e.id, i) != null) {
+                throw new IllegalStateException("Powtórzony identyfikator wydarzenia: " + e.id);
+            }
+            for (int band = 0; band < GameEvent.StatBand.MASKS; band++) {
+                double w = e.weightFor(band);
+                if (!(w >= 0) || Double.isInfinite(w)) {
+                    throw new IllegalStateException("Niepoprawna waga wydarzenia " + e.id + ": " + w);
+                }
+                weights[band][i] = w;
+                anyWeighted |= w != 1.0;
+            }
+        }
+        this.weighted = anyWeighted;
+        this.conditional = anyConditional;
+        buildKeyTable();
+    }
+
+    private int bitFor(int flag) { //Nadaje kolejny bit klucza każdej fladze używanej w warunkach
+        if (flag == FlagRegistry.NONE) return 0;
+        if (keyBitOfFlag[flag] == 0) {
+            if (conditionFlags >= MAX_CONDITION_FLAGS) {
+                throw new IllegalStateException("Zbyt wiele flag warunkowych: " + FlagRegistry.nameOf(flag));
+            }
+            flagOfKeyBit[conditionFlags] = flag;
+            keyBitOfFlag[flag] = 1 << conditionFlags++;
+        }
+        return keyBitOfFlag[flag];
+    }
+
+    private boolean compileCondition(int i, Condition condition) { //true, gdy warunek zależy od chwili losowania
+        int clauses = clauseStart[i];
+        clauseStart[i + 1] = clauses;
+        if (condition == null) return false;
+
+        requiredMask[i] |= bitsFor(condition.requiredFlags);
+        forbiddenMask[i] |= bitsFor(condition.forbiddenFlags);
+        if (condition.flagClauses != null) {
+            bitsFor(condition.flags());
+            flagConditions[i] = condition;
+        }
+        cooldowns[i] = condition.cooldown;
+
+        int count = condition.statClauses.length;
+        if (clauseRequired.length < clauses + count) {
+            int capacity = Math.max(clauses + count, clauseRequired.length * 2);
+            clauseRequired = Arrays.copyOf(clauseRequired, capacity);
+            clauseForbidden = Arrays.copyOf(clauseForbidden, capacity);
+            clauseBounds = Arrays.copyOf(clauseBounds, capacity * Condition.BOUNDS);
+        }
+        for (Condition.Clause clause : condition.statClauses) {
+            clauseRequired[clauses] = clause.required();
+            clauseForbidden[clauses] = clause.forbidden();
+            System.arraycopy(clause.bounds(), 0, clauseBounds, clauses * Condition.BOUNDS, Condition.BOUNDS);
+            clauses++;
+        }
+        clauseStart[i + 1] = clauses;
+        return count > 0 || cooldowns[i] > 0;
+    }
+
+    private int bitsFor(long flags) {
+        int key = 0;
+        for (long rest = flags; rest != 0; rest &= rest - 1) key |= bitFor(Long.numberOfTrailingZeros(rest));
+        return key;
+    }
+
+    private long inventoryOfKey(int key) { //Odwrotność keyFor - tylko flagi z warunków
+        long inventory = 0;
+        for (int rest = key; rest != 0; rest &= rest - 1) inventory |= FlagRegistry.bit(flagOfKeyBit[Integer.numberOfTrailingZeros(rest)]);
+        return inventory;
+    }
+
+    private void buildKeyTable() {
+        for (int b = 0; b < Long.BYTES; b++) {
+            for (int value = 0; value < 256; value++) {
+                int key = 0;
+                for (int bit = 0; bit < 8; bit++) {
+                    if ((value & (1 << bit)) != 0) key |= keyBitOfFlag[b * 8 + bit];
+                }
+                keyTable[b][value] = key;
+            }
+        }
+    }
+
+    public int keyFor(long inventory) { //Maska posiadanych flag (tylko tych, które występują w warunkach)
+        int key = 0;
+        for (int b = 0; b < Long.BYTES; b++) {
+            key |= keyTable[b][(int) (inventory >>> (b * 8)) & 0xFF];
+        }
+        return key;
+    }
+
+    public int keyCount() {
+        return 1 << conditionFlags;
+    }
+
+    public boolean isEligible(int index, int key) { //Warunki na flagach - stałe dla klucza, więc sprawdzane przy budowie zbioru kandydatów
+        return (requiredMask[index] & key) == requiredMask[index] && (forbiddenMask[index] & key) == 0
+                && (flagConditions[index] == null || flagConditions[index].matchesFlags(inventoryOfKey(key)));
+    }
+
+    public boolean meetsStats(int index, long inventory, double budget, int happiness, int comfort, int day) { //Progi i dni - przy losowaniu
+        int from = clauseStart[index], to = clauseStart[index + 1];
+        if (from == to) return true;
+        for (int c = from; c < to; c++) { //Alternatywa klauzul - same tablice prymitywów, bez wywołań wirtualnych
+            int b = c * Condition.BOUNDS;
+            if ((inventory & clauseRequired[c]) == clauseRequired[c] && (inventory & clauseForbidden[c]) == 0
+                    && budget >= clauseBounds[b] && budget <= clauseBounds[b + 1]
+                    && happiness >= clauseBounds[b + 2] && happiness <= clauseBounds[b + 3]
+                    && comfort >= clauseBounds[b + 4] && comfort <= clauseBounds[b + 5]
+                    && day >= clauseBounds[b + 6] && day <= clauseBounds[b + 7]) return true;
+        }
+        return false;
+    }
+
+    public int cooldown(int index) {
+        return cooldowns[index];
+    }
+
+    public boolean isConditional() {
+        return conditional;
+    }
+
+    public double weight(int index, int bandMask) {
+        return weights[bandMask][index];
+    }
+
+    public boolean isWeighted() {
+        return weighted;
+    }
+
+    public int indexOf(String description) {
+        if (description == null || description.isEmpty()) return -1;
+        Integer index = descriptionIndex.get(description);
+        return index == null ? -1 : index;
+    }
+
+    public int indexOfId(int id) {
+        if (id == GameEvent.NO_EVENT) return -1;
+        Integer index = idIndex.get(id);
+        return index == null ? -1 : index;
+    }
+
+    public int idOfDescription(String description) { //Import starych zapisów, w których wydarzenia były zapisane opisem
+        int index = indexOf(description);
+        return index < 0 ? GameEvent.NO_EVENT : events[index].id;
+    }
+
+    public GameEvent event(int index) {
+        return events[index];
+    }
+
+    public List<GameEvent> events() {
+        return eventList;
+    }
+
+    public int size() {
+        return events.length;
+    }
+
+    private static class DefaultEvents { //Definicje wszystkich wydarzeń gry
+        private final List<GameEvent> eventPool = new ArrayList<>();
+
+        List<GameEvent> build() {
+            initEventPool();
+            return eventPool;
+        }
+
+        private GameEvent addEvent(int id, String desc, GameEvent.Choice... choices) { //Wydarzenie wypadające z póli
+            List<GameEvent.Choice> choiceList = new ArrayList<>();
+            for (GameEvent.Choice c : choices) choiceList.add(c);
+            GameEvent e = new GameEvent(id, desc, choiceList);
+            eventPool.add(e);
+            return e;
+        }
+
+        private GameEvent addRepeatableEvent(int id, String desc, GameEvent.Choice... choices) { //Powtarzalne wydarzenie
+            List<GameEvent.Choice> choiceList = new ArrayList<>();
+            for (GameEvent.Choice c : choices) choiceList.add(c);
+            GameEvent e = new GameEvent(id, desc, choiceList);
+            e.setRepeatable(true);
+            eventPool.add(e);
+            return e;
+        }
+
+        private GameEvent addComplexEvent(int id, String require, String forbid, String desc, GameEvent.Choice... choices) { //Niepowtarzalne wydarzenie warunkowe
+            List<GameEvent.Choice> choiceList = new ArrayList<>();
+            for (GameEvent.Choice c : choices) choiceList.add(c);
+            GameEvent e = new GameEvent(id, desc, choiceList);
+            e.setRequiredItem(require);
+            e.setForbiddenItem(forbid);
+            eventPool.add(e);
+            return e;
+        }
+
+        private GameEvent addRepairEvent(int id, String brokenItem, String desc, GameEvent.Choice... choices) { //Powtarzalne wydarzenie zależne
+            List<GameEvent.Choice> choiceList = new ArrayList<>();
+            for (GameEvent.Choice c : choices) choiceList.add(c);
+
+            GameEvent e = new GameEvent(id, desc, choiceList);
+            e.setRequiredItem(brokenItem);
+            e.setRepeatable(true);
+
+            eventPool.add(e);
+            return e;
+        }
+
+
+
+        private void initEventPool() { //Przechowuje wszystkie dostępne wydarzenia
+
+            // Wydarzenia powtarzające się
+            // 1.
+            addRepeatableEvent(101, "Promocja w markecie spożywczym.",
+                    new GameEvent.Choice("Robię duże zakupy", 80, 2, 6, null),
+                    new GameEvent.Choice("Tylko niezbędne", 30, 0, 0, null),
+                    new GameEvent.Choice("Nic nie kupuję", 0, -2, -2, null));
+
+            // 2.
+            addRepeatableEvent(102, "Gotujesz, ale zabrakło ci składnika.",
+                    new GameEvent.Choice("Idę po niego do sklepu", 10, 2, 2, null),
+                    new GameEvent.Choice("Poradzę sobie bez niego", 0, -2, -2, null));
+
+            // 3.
+            addRepeatableEvent(103, "Twój znajomy ma urodziny.",
+                    new GameEvent.Choice("Kupuję super prezent", 100, 5, 2, null),
+                    new GameEvent.Choice("Dorzucam się do prezentu ze znajomymi", 30, 2, 0, null),
+                    new GameEvent.Choice("Nie kupuję prezentu", 0, -3, -2, null));
+
+            // 4.
+            addRepeatableEvent(104, "10zł na ulicy.",
+                    new GameEvent.Choice("Biorę je!", 10, 5, -1, null),
+                    new GameEvent.Choice("Poradzę sobię bez nich", 0, 0, 1, null));
+
+            // 5.
+            addRepeatableEvent(105, "Znajomi zapraszają cię na kawę.",
+                    new GameEvent.Choice("Carmel macchiato z bitą śmietaną", 25, 8, 8, null),
+                    new GameEvent.Choice("Zwykła czarna", 8, 4, 1, null),
+                    new GameEvent.Choice("Przyjdę dla towarzystwa", 0, 2, 0, null));
+
+            // 6.
+            addRepeatableEvent(106, "Szef poprosił cię o zostanie dłużej w pracy.",
+                    new GameEvent.Choice("Biorę nadgodziny", -250, -2, -2, null),
+                    new GameEvent.Choice("Wracam do domu 16:00", 0, 2, 0, null));
+
+            // 7.
+            addRepeatableEvent(107, "Dawno nie byłeś w kinie.",
+                    new GameEvent.Choice("Bilet VIP i duży popcorn", 80, 25, 20, null),
+                    new GameEvent.Choice("Zwykły bilet, bez jedzenia", 30, 15, 5, null),
+                    new GameEvent.Choice("Zostanę w domu", 0, -5, 0, null));
+
+            // 8.
+            GameEvent eReflex = new GameEvent(108, "Stoisz na pasach. Światło zaraz się zmieni.", new ArrayList<>());
+            eReflex.setRepeatable(true);
+            eReflex.setMinigame(GameEvent.MinigameType.REFLEX_LIGHTS);
+            eventPool.add(eReflex);
+
+
+            // Wydarzenie zależne od wybory pojawiające się raz
+            // 1.
+            addComplexEvent(201, "Brak Auta", null,"Musisz przesiąść się na autobus. Kupujesz bilet miesięczny?",
+                    new GameEvent.Choice("Kupuję bilet miesięczny", 120, 2, 2, "Bilet Miesięczny"),
+                    new GameEvent.Choice("Pojeżdżę na jednorazowych", 0, 0, 0, null));
+
+            // 2.
+            addComplexEvent(202, "Brak Auta", "Bilet Miesięczny","Widzisz kontrolera na przystanku.",
+                    new GameEvent.Choice("Kupuję bilet", 3, 2, 2, null),
+                    new GameEvent.Choice("Mandat", 100, -5, -5, null),
+                    new GameEvent.Choice("Wysiadam na tym przystanku", 0, -10, -15,null ));
+
+            // 3.
+            addComplexEvent(203, null, "Ząb Nieleczony","Obudził Cię potworny ból zęba. Opuchlizna jest ogromna.",
+                    new GameEvent.Choice("Prywatny dentysta", 300, 10, 10, null),
+                    new GameEvent.Choice("Pójdę na NFZ", 0, -15, -15, null),
+                    new GameEvent.Choice("Tabletki przeciwbólowe", 30, -10, -10, "Ząb Nieleczony"));
+
+            // 4.
+            addComplexEvent(204, "Ząb Nieleczony II", null,"Twój ząb jest zupełnie zepsuty. Ból jest nie do zniesienia",
+                    new GameEvent.Choice("Usuwam ząb", 200, -60, -90, "Brak Zęba", "Ząb Nieleczony II"));
+
+
+
+
+
+            // Wydarzenia powtarzające się w zależności od wyboru
+            // 1.
+            List<GameEvent.Choice> miceChoices = new ArrayList<>();
+            miceChoices.add(new GameEvent.Choice("Tym razem dzwonię po specjalistów", 220, 0, 0, null, "Myszy"));
+            miceChoices.add(new GameEvent.Choice("To nowa codzienność", 0, -10, -12, null));
+            GameEvent eMyszy = new GameEvent(301, "Znowu widzisz myszy, tym razem jest ich więcej.", miceChoices);
+            eMyszy.setRequiredItem("Myszy");
+            eMyszy.setRepeatable(true);
+            eMyszy.setMinigame(GameEvent.MinigameType.MOUSE_CATCH);
+            eventPool.add(eMyszy);
+
+            // 2.
+            addRepairEvent(302, "Zepsute Auto", "Twój samochód jest zupełnie nie sprawny.",
+                    new GameEvent.Choice("Próbuję go odratować", 800, 1, 2, "Ryzyko Awarii", "Zepsute Auto"),
+                    new GameEvent.Choice("Teraz tylko złom", 0, -10, -12, "Brak Auta", "Zepsute Auto"));
+
+            // 3.
+            addRepairEvent(303, "Ryzyko Awarii", "Pora rzeczywiście zająć się swoim samochodem.",
+                    new GameEvent.Choice("Naprawa w ASO", 800, 1, 2, null, "Ryzyko Awarii"),
+                    new GameEvent.Choice("Znowu Mirek", 250, -10, -12, null));
+
+            // 4.
+            addRepairEvent(304, "Gołębie", "Gołębie regularnie wracają na twój balkon.",
+                    new GameEvent.Choice("Inwestuję w siatkę przeciw ptakom", 120, 10, 12, null, "Gołębie"),
+                    new GameEvent.Choice("Kupuję plastikowego kruka", 60, 2, 5, null, "Gołębie"),
+                    new GameEvent.Choice("Zostawiam je w spokoju", 0, 2, -12, null));
+
+            // 5.
+            addRepairEvent(305, "Ząb Nieleczony", "Ząb nie przestaje boleć. Potrzebujesz leczenia kanałowego.",
+                    new GameEvent.Choice("Prywatny dentysta", 400, 0, 0, null, "Ząb Nieleczony"),
+                    new GameEvent.Choice("Pójdę na NFZ", 0, -15, -15, null, "Ząb Nieleczony"),
+                    new GameEvent.Choice("Dalej go ignoruję", 30, -25, -25, "Ząb Nieleczony II", "Ząb Nieleczony"));
+
+
+            // Wydarzenia jednorazowe
+            // 1.
+            addEvent(401, "Zauważyłeś, że twoje buty się rozklejają.",
+                    new GameEvent.Choice("Kupuję nowe firmowe", 250, 15, 15, null),
+                    new GameEvent.Choice("Kupuję ekonomiczne", 120, 10, 2, null),
+                    new GameEvent.Choice("Naprawiam swoje stare", 0, -5, -5, null));
+
+            // 2.
+            addEvent(402, "Twój samochód wydaje dziwne dźwięki. To chyba silnik.",
+                    new GameEvent.Choice("Naprawa w ASO", 600, 5, 5, null),
+                    new GameEvent.Choice("Zaprzyjaźniony mechanik Mirek", 200, 2, -2, "Ryzyko Awarii"),
+                    new GameEvent.Choice("Jakie dźwięki?", 0, 1, -5, "Zepsute Auto"));
+
+
+            // 3.
+            addEvent(403, "Zauważyłeś mysz w swoim mieszkaniu.",
+                    new GameEvent.Choice("Wezwę specjalistów", 200, 5, 5, null),
+                    new GameEvent.Choice("Kupuję i zakładam pułapkę", 20, 1, -2, null),
+                    new GameEvent.Choice("Ignorujesz ją", 0, 0, -3, "Myszy"));
+
+            // 4.
+            addEvent(404, "Twój ulubiony artysta daje koncert w twoim mieście.",
+                    new GameEvent.Choice("Kupuję bilety", 120, 20, 10, null),
+                    new GameEvent.Choice("Biorę nadgodziny żeby kupić bilety", 40, 15, -2, null),
+                    new GameEvent.Choice("Siedzę w domu", 0, -5, -5, null));
+
+            // 5.
+            addEvent(405, "W pracy zbierają na 'Szlachetną Paczkę'. Wypada się dorzucić.",
+                    new GameEvent.Choice("Daję 100 zł", 100, 10, 5, null),
+                    new GameEvent.Choice("Daję 20 zł", 20, 5, 0, null),
+                    new GameEvent.Choice("Mówię, że nie mam gotówki", 0, -5, -5, null));
+
+            // 6.
+            addEvent(406, "Zorientowałeś się, że płacisz za 5 serwisów VOD, a oglądasz jeden.",
+                    new GameEvent.Choice("Zostawiam wszystko, może się przyda", 120, 10, 10, null),
+                    new GameEvent.Choice("Anuluję wszystko poza jednym", 30, 2, 0, null),
+                    new GameEvent.Choice("Anuluję wszystko, czytam książki", 0, -10, 5, null));
+
+            // 7.
+            addEvent(407, "Dostałeś mail-a o wygranej w loterii.",
+                    new GameEvent.Choice("Klikam w link", 400, -20, -20, null),
+                    new GameEvent.Choice("Zgłaszam nadawcę", 0, 2, 5, null),
+                    new GameEvent.Choice("Ignoruję go", 0, 0, 3, null));
+
+            // 8.
+            addEvent(408, "Gołębie uwiły sobie gniazdo na twoim balkonie.",
+                    new GameEvent.Choice("Inwestuję w siatkę przeciw ptakom", 120, 10, 12, null),
+                    new GameEvent.Choice("Kupuję plastikowego kruka", 60, 2, 5, null),
+                    new GameEvent.Choice("Niszczę gniazdo", 0, 0, 3, "Gołębie"));
+
+            // 9.
+            addEvent(409, "Masz ochotę rozwinąć swoją pasję (np. malowanie, gry, sport).",
+                    new GameEvent.Choice("Kupuję profesjonalny sprzęt", 250, 30, 10, null),
+                    new GameEvent.Choice("Kupuję używane akcesoria", 90, 15, 5, null),
+                    new GameEvent.Choice("Rezygnuję, nie stać mnie", 0, -15, -10, null));
+
+            // 10.
+            addEvent(410, "Nie chce ci się gotować po pracy. Pizza brzmi kusząco.",
+                    new GameEvent.Choice("Pizza z supermarketu", 15, 6, 10, null),
+                    new GameEvent.Choice("Zamawiam pizzę", 50, 10, 15, null),
+                    new GameEvent.Choice("Obejdę się smakiem", 0, -10, -10, null));
+
+            // 11.
+            addEvent(411, "Czujesz się fatalnie. Gorączka i katar.",
+                    new GameEvent.Choice("Idę do apteki po komplet leków", 120, 10, 10, null),
+                    new GameEvent.Choice("Domowe sposoby (Czosnek)", 20, -5, -5, null),
+                    new GameEvent.Choice("Ignoruję i idę do pracy", 0, -20, -30, "Choroba"));
+
+            // 12.
+            addEvent(412, "Poplamiłeś swoją ulubioną koszulkę olejem.",
+                    new GameEvent.Choice("Piorę ją w domu", 0, -2, -2, null),
+                    new GameEvent.Choice("Oddaję ją do pralni", 50, 10, 10, null));
+
+            // 13.
+            addEvent(413, "Sąsiedzi zbierają na renowację elewacji w waszym bloku.",
+                    new GameEvent.Choice("Dołożę się ", 150, 15, 0, null),
+                    new GameEvent.Choice("Ignoruję ogłoszenia", 0, 0, -5, null));
+
+            // 14.
+            addEvent(414, "Musisz iśc do fryzjera.",
+                    new GameEvent.Choice("Znajomy hobbysta", 10, 2, 0, null),
+                    new GameEvent.Choice("Profesjonalista", 80, 10, 10, null),
+                    new GameEvent.Choice("Zrób to samemu", 0, -5, -7, null));
+
+            // 15.
+            addEvent(415, "Musisz zapłacić rachunki.",
+                    new GameEvent.Choice("Płacę", 480, 10, 10, null),
+                    new GameEvent.Choice("Nie płacę", 0, -50, -80, null));
+
+            // 16.
+            addEvent(416, "Znajomy poprosił cię o pożyczenie mu pieniędzy.",
+                    new GameEvent.Choice("Pożyczę pieniądze", 100, 20, 0, null),
+                    new GameEvent.Choice("Nie pożyczę", 0, -20, 0, null));
+        }
+    }
+}
@@ -0,0 +1,353 @@
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+public class EventIndex { // Dostępność wydarzeń w jednej rozgrywce i gotowe zbiory kandydatów dla kombinacji flag
+
+    private final EventCatalog catalog;
+    private final boolean[] available;
+    private int availableCount;
+    private final int[] removed; // Wydarzenia usunięte od ostatniego resetu - reset przywraca tylko je
+    private final int[] removedPosition;
+    private int removedCount;
+    private final int[] removedAt; // Numer zmiany, przy której wydarzenie usunięto - czy jest kolumną tablicy aliasów
+    private int changes;
+    private int lastCandidateCount; // Rozmiar zbioru kandydatów przy ostatnim losowaniu (metryki)
+
+    private static final int NEVER = Integer.MIN_VALUE / 2; // Bez przepełnienia przy odejmowaniu
+    private final int[] lastDrawn; // Tura ostatniego wylosowania - dla cooldownów, nie zapisywana w slocie
+    private int turn;
+
+    private static final int LOG_REMOVE = 0, LOG_PUT_BACK = 1, LOG_DRAWN = 2;
+    private boolean logging; // Włącza go pierwszy snapshot - bez cofania (symulacja, serwer) dziennik nie rośnie
+    private int[] logOp = new int[0]; // Dziennik zmian do cofania: rodzaj | wydarzenie << 2
+    private int[] logPrevious = new int[0]; // Poprzednia tura wylosowania (LOG_DRAWN)
+    private int logSize;
+    private long logStart; // Pozycja pierwszego wpisu - pozycje rosną przez całe życie indeksu
+
+    private final CandidateSet[] candidatesByKey; // Budowane leniwie dla napotkanych kombinacji flag
+    private CandidateSet[] builtSets; // Zwykle kilka - rośnie w miarę potrzeby (pamięć przy wielu sesjach)
+    private int builtCount;
+
+    private static final int MAX_REJECTIONS = 16;
+    private final int[] smallScratch; // Bufory robocze do budowy tablic aliasów (metoda Vose'a)
+    private final int[] largeScratch;
+
+    public EventIndex(EventCatalog catalog) {
+        int n = catalog.size();
+        this.catalog = catalog;
+        this.available = new boolean[n];
+        this.removed = new int[n];
+        this.removedPosition = new int[n];
+        this.removedAt = new int[n];
+        this.lastDrawn = new int[n];
+        this.candidatesByKey = new CandidateSet[catalog.keyCount()];
+        this.builtSets = new CandidateSet[Math.min(4, catalog.keyCount())];
+        this.smallScratch = new int[n];
+        this.largeScratch = new int[n];
+        Arrays.fill(available, true);
+        Arrays.fill(lastDrawn, NEVER);
+        this.availableCount = n;
+    }
+
+    public void reset() { //Przywraca wydarzenia usunięte od ostatniego resetu - O(usunięte), tablice aliasów zostają
+        while (removedCount > 0) {
+            int index = removed[removedCount - 1];
+            log(LOG_PUT_BACK, index, 0);
+            putBack(index);
+        }
+    }
+
+    public void resetCooldowns() { //Nowa rozgrywka - miesiąc (reset) cooldownów nie kasuje; dawne punkty powrotu tracą ważność
+        Arrays.fill(lastDrawn, NEVER);
+        turn = 0;
+        logging = false;
+        logStart += logSize;
+        logSize = 0;
+    }
+
+    public record Snapshot(long position, int turn) { //Punkt powrotu przy cofaniu tur - miejsce w dzienniku zmian
+    }
+
+    public Snapshot snapshot() { //O(1) - stan odtwarza się, cofając późniejsze wpisy dziennika
+        logging = true;
+        return new Snapshot(logStart + logSize, turn);
+    }
+
+    public void restore(Snapshot snapshot) { //O(zmiany od punktu powrotu): zwykle jedno wydarzenie na dzień
+        if (snapshot.position() < logStart || snapshot.position() > logStart + logSize) {
+            throw new IllegalArgumentException("Punkt powrotu spoza dziennika zmian: " + snapshot.position());
+        }
+        while (logStart + logSize > snapshot.position()) {
+            int entry = --logSize;
+            int index = logOp[entry] >>> 2;
+            switch (logOp[entry] & 3) {
+                case LOG_REMOVE -> putBack(index);
+                case LOG_PUT_BACK -> take(index);
+                default -> lastDrawn[index] = logPrevious[entry];
+            }
+        }
+        turn = snapshot.turn();
+    }
+
+    public void discard(Snapshot oldest) { //Wpisy sprzed najstarszego punktu powrotu - przesunięcie, gdy odpada co najmniej połowa
+        int drop = (int) Math.min(oldest.position() - logStart, logSize);
+        if (drop <= 0 || drop * 2 < logSize) return;
+        System.arraycopy(logOp, drop, logOp, 0, logSize - drop);
+        System.arraycopy(logPrevious, drop, logPrevious, 0, logSize - drop);
+        logSize -= drop;
+        logStart += drop;
+    }
+
+    private void log(int op, int index, int previous) {
+        if (!logging) return;
+        if (logSize == logOp.length) {
+            logOp = Arrays.copyOf(logOp, Math.max(16, logSize * 2));
+            logPrevious = Arrays.copyOf(logPrevious, logOp.length);
+        }
+        logOp[logSize] = op | index << 2;
+        logPrevious[logSize++] = previous;
+    }
+
+    public void nextTurn() { //Jedno wywołanie na dzień, także gdy pula jest pusta
+        turn++;
+    }
+
+    public void drawn(int index) {
+        log(LOG_DRAWN, index, lastDrawn[index]);
+        lastDrawn[index] = turn;
+    }
+
+    private boolean admits(int index, PlayerState player) { //Warunki zależne od chwili losowania - poza zbiorem kandydatów
+        int cooldown = catalog.cooldown(index);
+        if (cooldown > 0 && turn - lastDrawn[index] <= cooldown) return false;
+        return catalog.meetsStats(index, player.inventory, player.budget, player.happiness, player.comfort, player.day);
+    }
+
+    public int draw(int key, int bandMask, int excluded, PlayerState player, RandomGenerator random) { //Losuje kandydata w czasie stałym, -1 gdy brak
+        CandidateSet set = candidatesByKey[key];
+        if (set == null) {
+            set = new CandidateSet(key);
+            candidatesByKey[key] = set;
+            if (builtCount == builtSets.length) builtSets = Arrays.copyOf(builtSets, builtCount * 2);
+            builtSets[builtCount++] = set;
+        }
+
+        int size = set.size;
+        lastCandidateCount = size;
+        if (size == 0) return -1;
+        if (catalog.isConditional()) return drawConditional(set, bandMask, excluded, player, random);
+        int excludedPos = excluded >= 0 ? set.position[excluded] : -1;
+
+        if (!catalog.isWeighted()) {
+            if (excludedPos < 0) return set.items[random.nextInt(size)];
+            if (size == 1) return -1;
+            int r = random.nextInt(size - 1);
+            if (r >= excludedPos) r++;
+            return set.items[r];
+        }
+
+        if (excludedPos >= 0 && size == 1) return -1;
+        for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) { //Odrzucenie ostatniego wydarzenia nie zmienia proporcji pozostałych
+            int picked = set.sample(bandMask, random);
+            if (picked < 0) return -1;
+            if (picked != excluded) return picked;
+        }
+        return set.sampleLinear(bandMask, excluded, random);
+    }
+
+    private int drawConditional(CandidateSet set, int bandMask, int excluded, PlayerState player, RandomGenerator random) { //Odrzucanie niespełnionych - proporcje pozostałych bez zmian
+        boolean weighted = catalog.isWeighted();
+        for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) {
+            int picked = weighted ? set.sample(bandMask, random) : set.items[random.nextInt(set.size)];
+            if (picked < 0) return -1;
+            if (picked != excluded && admits(picked, player)) return picked;
+        }
+        double total = 0; // Większość kandydatów odpada - jedno przejście po zbiorze
+        for (int i = 0; i < set.size; i++) {
+            int item = set.items[i];
+            if (item != excluded && admits(item, player)) total += catalog.weight(item, bandMask);
+        }
+        if (total <= 0) return -1;
+        double r = random.nextDouble() * total;
+        int last = -1;
+        for (int i = 0; i < set.size; i++) {
+            int item = set.items[i];
+            if (item == excluded || !admits(item, player)) continue;
+            double w = catalog.weight(item, bandMask);
+            if (w <= 0) continue;
+            last = item;
+            r -= w;
+            if (r < 0) return item;
+        }
+        return last;
+    }
+
+    public void remove(int index) { //Usuwa wydarzenie ze wszystkich zbudowanych zbiorów - O(liczba zbiorów)
+        if (!available[index]) return;
+        log(LOG_REMOVE, index, 0);
+        take(index);
+    }
+
+    private void take(int index) {
+        available[index] = false;
+        availableCount--;
+        removedAt[index] = ++changes;
+        removedPosition[index] = removedCount;
+        removed[removedCount++] = index;
+        for (int i = 0; i < builtCount; i++) builtSets[i].remove(index);
+    }
+
+    private void putBack(int index) { //Odwrotność remove
+        available[index] = true;
+        availableCount++;
+        int last = removed[--removedCount];
+        removed[removedPosition[index]] = last;
+        removedPosition[last] = removedPosition[index];
+        for (int i = 0; i < builtCount; i++) builtSets[i].add(index);
+    }
+
+    public boolean isAvailable(int index) {
+        return available[index];
+    }
+
+    public boolean isEmpty() {
+        return availableCount == 0;
+    }
+
+    public int availableCount() {
+        return availableCount;
+    }
+
+    public int lastCandidateCount() {
+        return lastCandidateCount;
+    }
+
+    private class CandidateSet { //Wydarzenia spełniające warunki dla jednej kombinacji flag
+        final int key;
+        final int[] items;
+        final int[] position; // -1 = poza zbiorem
+        int size;
+
+        // Tablice aliasów per maska przedziałów. Kolumny to wydarzenia dostępne przy budowie - usunięte później
+        // zostają w tablicy i są odrzucane przy losowaniu, aż odpadnie połowa wagi
+        final double[][] aliasProbability = new double[GameEvent.StatBand.MASKS][];
+        final int[][] aliasItem = new int[GameEvent.StatBand.MASKS][];  // Wydarzenie kolumny
+        final int[][] aliasOther = new int[GameEvent.StatBand.MASKS][]; // Jego alias
+        final int[] columns = new int[GameEvent.StatBand.MASKS];
+        final double[] builtWeight = new double[GameEvent.StatBand.MASKS];
+        final double[] liveWeight = new double[GameEvent.StatBand.MASKS]; // Waga kolumn wciąż w zbiorze
+        final int[] builtAt = new int[GameEvent.StatBand.MASKS];
+        int validAliases; // Bit na maskę przedziałów - tablica zbudowana i warta użycia
+
+        CandidateSet(int key) { //Jedyne przejście po katalogu dla tej kombinacji flag
+            this.key = key;
+            this.items = new int[available.length];
+            this.position = new int[available.length];
+            for (int i = 0; i < available.length; i++) {
+                if (available[i] && catalog.isEligible(i, key)) {
+                    position[i] = size;
+                    items[size++] = i;
+                } else {
+                    position[i] = -1;
+                }
+            }
+        }
+
+        int sample(int bandMask, RandomGenerator random) { //O(1) oczekiwane: kolumna + rzut monetą, usunięte kolumny odrzucane
+            if ((validAliases & (1 << bandMask)) == 0) buildAlias(bandMask);
+            if (builtWeight[bandMask] <= 0) return -1;
+            double[] probability = aliasProbability[bandMask];
+            int[] item = aliasItem[bandMask];
+            int[] other = aliasOther[bandMask];
+            for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) { //Żywe kolumny mają co najmniej połowę wagi
+                int column = random.nextInt(columns[bandMask]);
+                int picked = random.nextDouble() < probability[column] ? item[column] : other[column];
+                if (position[picked] >= 0) return picked;
+            }
+            return sampleLinear(bandMask, -1, random);
+        }
+
+        int sampleLinear(int bandMask, int excluded, RandomGenerator random) { //Zapasowe losowanie z pominięciem jednego wydarzenia
+            double total = 0;
+            for (int i = 0; i < size; i++) {
+                if (items[i] != excluded) total += catalog.weight(items[i], bandMask);
+            }
+            if (total <= 0) return -1;
+            double r = random.nextDouble() * total;
+            int last = -1;
+            for (int i = 0; i < size; i++) {
+                if (items[i] == excluded) continue;
+                double w = catalog.weight(items[i], bandMask);
+                if (w <= 0) continue;
+                last = items[i];
+                r -= w;
+                if (r < 0) return items[i];
+            }
+            return last;
+        }
+
+        private void buildAlias(int bandMask) { //Metoda Vose'a, O(liczba kandydatów), bez alokacji po pierwszym razie
+            double[] probability = aliasProbability[bandMask];
+            int[] item = aliasItem[bandMask];
+            int[] other = aliasOther[bandMask];
+            if (probability == null) {
+                probability = aliasProbability[bandMask] = new double[items.length];
+                item = aliasItem[bandMask] = new int[items.length];
+                other = aliasOther[bandMask] = new int[items.length];
+            }
+
+            double total = 0;
+            for (int i = 0; i < size; i++) total += catalog.weight(items[i], bandMask);
+            builtWeight[bandMask] = total;
+            liveWeight[bandMask] = total;
+            builtAt[bandMask] = changes;
+            columns[bandMask] = size;
+            validAliases |= 1 << bandMask;
+            if (total <= 0) return;
+
+            int small = 0, large = 0;
+            for (int i = 0; i < size; i++) {
+                item[i] = items[i];
+                other[i] = items[i];
+                probability[i] = catalog.weight(items[i], bandMask) * size / total;
+                if (probability[i] < 1.0) smallScratch[small++] = i;
+                else largeScratch[large++] = i;
+            }
+            while (small > 0 && large > 0) {
+                int s = smallScratch[--small];
+                int l = largeScratch[--large];
+                other[s] = items[l];
+                probability[l] = probability[l] + probability[s] - 1.0;
+                if (probability[l] < 1.0) smallScratch[small++] = l;
+                else largeScratch[large++] = l;
+            }
+            while (large > 0) probability[largeScratch[--large]] = 1.0;
+            while (small > 0) probability[smallScratch[--small]] = 1.0; // Błędy zaokrągleń
+        }
+
+        void remove(int index) { //Zamiana z ostatnim elementem - O(1), kolumna w tablicach aliasów zostaje jako odrzucana
+            int pos = position[index];
+            if (pos < 0) return;
+            int last = items[--size];
+            items[pos] = last;
+            position[last] = pos;
+            position[index] = -1;
+            for (int rest = validAliases; rest != 0; rest &= rest - 1) {
+                int mask = Integer.numberOfTrailingZeros(rest);
+                liveWeight[mask] -= catalog.weight(index, mask);
+                if (liveWeight[mask] < builtWeight[mask] / 2) validAliases &= ~(1 << mask); // Przebudowa przy następnym losowaniu
+            }
+        }
+
+        void add(int index) { //Dopisanie na końcu - kolumna ożywa, a wydarzenie spoza tablicy wymusza jej przebudowę
+            if (!catalog.isEligible(index, key)) return;
+            position[index] = size;
+            items[size++] = index;
+            for (int rest = validAliases; rest != 0; rest &= rest - 1) {
+                int mask = Integer.numberOfTrailingZeros(rest);
+                if (removedAt[index] > builtAt[mask]) liveWeight[mask] += catalog.weight(index, mask);
+                else validAliases &= ~(1 << mask);
+            }
+        }
+    }
+}
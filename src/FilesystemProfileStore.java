@@ -0,0 +1,344 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+public class FilesystemProfileStore implements ProfileStore { // Sloty rozłożone na podkatalogi + plik indeksu z nagłówkami
+
+    private static final String SAVE_EXTENSION = ".sav";
+    private static final String JOURNAL_EXTENSION = ".journal";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final String INDEX_FILE = "index.bin";
+    private static final String INDEX_JOURNAL_FILE = "index.journal";
+    private static final int INDEX_MAGIC = 0x4D575849; // "MWXI"
+    private static final int INDEX_JOURNAL_MAGIC = 0x4D57584A; // "MWXJ"
+    private static final short INDEX_VERSION = 2; // 2: numer epoki wiążący indeks z dziennikiem indeksu
+    private static final int MAX_ENTRY_SIZE = 64 * 1024;
+    private static final int MIN_COMPACTION = 1024; // Wpisy w dzienniku indeksu, poniżej których nie przepisujemy index.bin
+    static final int SHARDS = 64; // Katalogi 00..3f - tysiące profili bez jednego wielkiego katalogu
+
+    private final Path root;
+    private final Map<String, SaveFormat.Header> index = new HashMap<>(); // Dostęp pod blokadą this
+    private final Map<String, SaveFormat.Header> changed = new LinkedHashMap<>(); // Zmiany od ostatniego flush
+    private boolean opened;
+    private long epoch;    // Wspólna dla index.bin i dziennika indeksu - dziennik ze starszej epoki jest pomijany
+    private int journaled; // Wpisy w dzienniku indeksu od ostatniego przepisania index.bin
+
+    public FilesystemProfileStore(Path root) {
+        this.root = root;
+    }
+
+    static String shardOf(String slot) { //String.hashCode jest stały między uruchomieniami
+        return String.format("%02x", Math.floorMod(slot.hashCode(), SHARDS));
+    }
+
+    private Path savePath(String slot) {
+        return root.resolve(shardOf(slot)).resolve(slot + SAVE_EXTENSION);
+    }
+
+    private Path journalPath(String slot) {
+        return root.resolve(shardOf(slot)).resolve(slot + JOURNAL_EXTENSION);
+    }
+
+    private synchronized void open() { //Przy pierwszym użyciu: indeks z pliku albo odbudowa ze slotów
+        if (opened) return;
+        opened = true;
+        try {
+            boolean migrated = migrateFlatLayout();
+            if (migrated || !readIndex()) {
+                rebuildIndex();
+                writeIndex();
+            } else if (journaled > 0) {
+                writeIndex(); // Kompaktuje dziennik po poprzednim uruchomieniu
+            }
+        } catch (IOException error) {
+            System.out.println("Błąd odczytu indeksu zapisów: " + error.getMessage());
+        }
+    }
+
+    @Override
+    public boolean exists(String slot) {
+        open();
+        synchronized (this) {
+            return index.containsKey(slot);
+        }
+    }
+
+    @Override
+    public byte[] readSnapshot(String slot) throws IOException {
+        open();
+        Path file = savePath(slot);
+        if (!Files.exists(file)) return null;
+        return Files.readAllBytes(file);
+    }
+
+    @Override
+    public void writeSnapshot(String slot, byte[] data, long generation) throws IOException {
+        open();
+        Path target = savePath(slot);
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_EXTENSION);
+        Files.createDirectories(target.getParent());
+        Files.write(temp, data);
+        replaceAtomically(temp, target);
+        SaveJournal.reset(journalPath(slot), generation);
+        SaveFormat.Header header = SaveFormat.readHeader(ByteBuffer.wrap(data));
+        synchronized (this) {
+            index.put(slot, header);
+            changed.put(slot, header);
+        }
+    }
+
+    @Override
+    public int appendJournal(String slot, List<SaveJournal.Record> records) throws IOException {
+        open();
+        int written = SaveJournal.append(journalPath(slot), records);
+        SaveJournal.Record last = records.get(records.size() - 1);
+        synchronized (this) { //Ostatnia tura trafia do indeksu przy flush - plik slotu zmienia tylko migawka
+            SaveFormat.Header old = index.get(slot);
+            if (old != null) {
+                SaveFormat.Header header = new SaveFormat.Header(old.version, last.day, last.budget, last.happiness,
+                        last.comfort, last.inventory, System.currentTimeMillis(), old.generation, old.bodyLength, old.bodyCrc);
+                index.put(slot, header);
+                changed.put(slot, header);
+            }
+        }
+        return written;
+    }
+
+    @Override
+    public int replayJournal(String slot, long generation, PlayerState state) throws IOException {
+        open();
+        return SaveJournal.replay(journalPath(slot), generation, state);
+    }
+
+    @Override
+    public void delete(String slot) throws IOException {
+        open();
+        Files.deleteIfExists(savePath(slot));
+        Files.deleteIfExists(journalPath(slot));
+        synchronized (this) {
+            index.remove(slot);
+            writeIndex(); // Usunięty slot znika z index.bin od razu
+        }
+    }
+
+    @Override
+    public List<SaveSystem.SlotInfo> list() {
+        open();
+        List<SaveSystem.SlotInfo> slots = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, SaveFormat.Header> entry : index.entrySet()) {
+                slots.add(new SaveSystem.SlotInfo(entry.getKey(), entry.getValue()));
+            }
+        }
+        return slots;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException { //Dopisuje zmiany do dziennika indeksu - koszt zależy od liczby zmian, nie slotów
+        if (!opened || changed.isEmpty()) return;
+        if (journaled + changed.size() > Math.max(MIN_COMPACTION, index.size())) { //Przepisanie co najmniej tylu wpisów, ile ma indeks - koszt rozłożony
+            writeIndex();
+            return;
+        }
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(changed.size() * 96);
+        DataOutputStream out = new DataOutputStream(batch);
+        Path file = root.resolve(INDEX_JOURNAL_FILE);
+        if (journaled == 0 || !Files.exists(file)) {
+            out.writeInt(INDEX_JOURNAL_MAGIC);
+            out.writeLong(epoch);
+        }
+        CRC32 crc = new CRC32();
+        for (Map.Entry<String, SaveFormat.Header> entry : changed.entrySet()) {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(96);
+            DataOutputStream fields = new DataOutputStream(payload);
+            fields.writeUTF(entry.getKey());
+            writeHeader(fields, entry.getValue());
+            crc.reset();
+            crc.update(payload.toByteArray());
+            out.writeInt(payload.size());
+            payload.writeTo(out);
+            out.writeInt((int) crc.getValue());
+        }
+        Files.createDirectories(root);
+        if (journaled == 0) {
+            Files.write(file, batch.toByteArray());
+        } else {
+            Files.write(file, batch.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        journaled += changed.size();
+        changed.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException { //Przy wyjściu - pełny index.bin, dziennik indeksu niepotrzebny
+        if (opened && (journaled > 0 || !changed.isEmpty())) writeIndex();
+    }
+
+    private boolean readIndex() { //false = brak pliku albo uszkodzony - trzeba odbudować
+        Path file = root.resolve(INDEX_FILE);
+        if (!Files.exists(file)) return false;
+        try {
+            byte[] data = Files.readAllBytes(file);
+            if (data.length < Integer.BYTES) return false;
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, data.length - Integer.BYTES);
+            if ((int) crc.getValue() != ByteBuffer.wrap(data, data.length - Integer.BYTES, Integer.BYTES).getInt()) return false;
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, data.length - Integer.BYTES));
+            if (in.readInt() != INDEX_MAGIC) return false;
+            short version = in.readShort();
+            if (version > INDEX_VERSION) return false;
+            long fileEpoch = version >= 2 ? in.readLong() : 0;
+            int count = in.readInt();
+            Map<String, SaveFormat.Header> loaded = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String slot = in.readUTF();
+                loaded.put(slot, readHeader(in));
+            }
+            index.clear();
+            index.putAll(loaded);
+            epoch = fileEpoch;
+            replayIndexJournal(false);
+            return true;
+        } catch (IOException error) {
+            return false;
+        }
+    }
+
+    private void replayIndexJournal(boolean rebuilt) { //Zmiany od ostatniego index.bin; po odbudowie tylko te zgodne z migawką slotu
+        Path file = root.resolve(INDEX_JOURNAL_FILE);
+        journaled = 0;
+        if (!Files.exists(file)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != INDEX_JOURNAL_MAGIC) return;
+            if (in.readLong() != epoch && !rebuilt) return; // Dziennik sprzed ostatniego przepisania indeksu
+            CRC32 crc = new CRC32();
+            while (true) { //Do końca pliku albo pierwszego uszkodzonego wpisu (przerwany zapis)
+                int length = in.readInt();
+                if (length < 0 || length > MAX_ENTRY_SIZE) break;
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != in.readInt()) break;
+
+                DataInputStream fields = new DataInputStream(new ByteArrayInputStream(payload));
+                String slot = fields.readUTF();
+                SaveFormat.Header header = readHeader(fields);
+                SaveFormat.Header current = index.get(slot);
+                if (rebuilt && (current == null || current.generation != header.generation)) continue;
+                index.put(slot, header);
+                journaled++;
+            }
+        } catch (IOException error) {
+            // Koniec pliku - wpisy do tego miejsca są już w indeksie
+        }
+    }
+
+    private static SaveFormat.Header readHeader(DataInputStream in) throws IOException {
+        return new SaveFormat.Header(in.readInt(), in.readInt(), in.readDouble(), in.readInt(),
+                in.readInt(), in.readLong(), in.readLong(), in.readLong(), in.readInt(), in.readInt());
+    }
+
+    private static void writeHeader(DataOutputStream out, SaveFormat.Header h) throws IOException {
+        out.writeInt(h.version);
+        out.writeInt(h.day);
+        out.writeDouble(h.budget);
+        out.writeInt(h.happiness);
+        out.writeInt(h.comfort);
+        out.writeLong(h.inventory);
+        out.writeLong(h.timestamp);
+        out.writeLong(h.generation);
+        out.writeInt(h.bodyLength);
+        out.writeInt(h.bodyCrc);
+    }
+
+    private void writeIndex() throws IOException { //Cały indeks naraz w nowej epoce - plik tymczasowy i podmiana, potem pusty dziennik indeksu
+        long next = epoch + 1;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + index.size() * 80);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(INDEX_MAGIC);
+        out.writeShort(INDEX_VERSION);
+        out.writeLong(next);
+        out.writeInt(index.size());
+        for (Map.Entry<String, SaveFormat.Header> entry : index.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeHeader(out, entry.getValue());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        Files.createDirectories(root);
+        Path file = root.resolve(INDEX_FILE);
+        Path temp = file.resolveSibling(INDEX_FILE + TEMP_EXTENSION);
+        Files.write(temp, bytes.toByteArray());
+        replaceAtomically(temp, file);
+        epoch = next;
+        Files.deleteIfExists(root.resolve(INDEX_JOURNAL_FILE));
+        journaled = 0;
+        changed.clear();
+    }
+
+    private void rebuildIndex() throws IOException { //Czyta tylko zmapowane nagłówki slotów
+        index.clear();
+        if (!Files.isDirectory(root)) return;
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path shard : shards) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(shard, "*" + SAVE_EXTENSION)) {
+                    for (Path file : files) {
+                        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                            if (channel.size() < SaveFormat.HEADER_SIZE) continue;
+                            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, SaveFormat.HEADER_SIZE);
+                            String name = file.getFileName().toString();
+                            index.put(name.substring(0, name.length() - SAVE_EXTENSION.length()), SaveFormat.readHeader(header));
+                        } catch (IOException error) {
+                            System.out.println("Pominięto uszkodzony zapis " + file.getFileName() + ": " + error.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+        replayIndexJournal(true); // Nagłówki slotów pokazują stan z migawki - ostatnie tury są w dzienniku indeksu
+    }
+
+    private boolean migrateFlatLayout() throws IOException { //Sloty zapisane wprost w katalogu głównym (starszy układ) trafiają do podkatalogów
+        if (!Files.isDirectory(root)) return false;
+        List<Path> flat = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, "*{" + SAVE_EXTENSION + "," + JOURNAL_EXTENSION + "}")) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().equals(INDEX_JOURNAL_FILE)) flat.add(file);
+            }
+        }
+        for (Path file : flat) {
+            String name = file.getFileName().toString();
+            String slot = name.substring(0, name.lastIndexOf('.'));
+            Path shard = root.resolve(shardOf(slot));
+            Files.createDirectories(shard);
+            Files.move(file, shard.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (!flat.isEmpty()) System.out.println("Przeniesiono zapisy do podkatalogów: " + flat.size() + " plików");
+        return !flat.isEmpty();
+    }
+
+    private static void replaceAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException error) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+import java.util.HashMap;
+import java.util.Map;
+
+public final class FlagRegistry { // Rejestr flag (bonusów) - każda flaga dostaje stały numer bitu
+
+    public static final int NONE = -1;
+    public static final int MAX_FLAGS = Long.SIZE; // Ekwipunek gracza to jeden long
+
+    private static final String DEFAULT_EMOJI = "📦";
+
+    private static final String[] names = new String[MAX_FLAGS];
+    private static final String[] emojis = new String[MAX_FLAGS];
+    private static final Map<String, Integer> ids = new HashMap<>();
+    private static int count;
+
+    public static final int BILET_MIESIECZNY = register("Bilet Miesięczny", "🚌");
+    public static final int ZAB_NIELECZONY = register("Ząb Nieleczony", "🦷");
+    public static final int ZAB_NIELECZONY_II = register("Ząb Nieleczony II", "🤕");
+    public static final int BRAK_ZEBA = register("Brak Zęba", "😶");
+    public static final int RYZYKO_AWARII = register("Ryzyko Awarii", "🔧");
+    public static final int ZEPSUTE_AUTO = register("Zepsute Auto", DEFAULT_EMOJI);
+    public static final int MYSZY = register("Myszy", "🐭");
+    public static final int GOLEBIE = register("Gołębie", "🐦");
+    public static final int BRAK_AUTA = register("Brak Auta", "🚶");
+    public static final int CHOROBA = register("Choroba", "🦠");
+
+    private FlagRegistry() {
+    }
+
+    private static int register(String name, String emoji) {
+        if (count >= MAX_FLAGS) {
+            throw new IllegalStateException("Zbyt wiele flag: " + name);
+        }
+        int id = count++;
+        names[id] = name;
+        emojis[id] = emoji;
+        ids.put(name, id);
+        return id;
+    }
+
+    public static int idOf(String name) { //NONE dla null
+        if (name == null) return NONE;
+        Integer id = ids.get(name);
+        if (id == null) {
+            throw new IllegalArgumentException("Nieznana flaga: " + name);
+        }
+        return id;
+    }
+
+    public static int findId(String name) { //Jak idOf, ale bez wyjątku (np. przy wczytywaniu starych zapisów)
+        Integer id = name == null ? null : ids.get(name);
+        return id == null ? NONE : id;
+    }
+
+    public static long bit(int id) {
+        return id == NONE ? 0L : 1L << id;
+    }
+
+    public static String nameOf(int id) {
+        return id == NONE ? null : names[id];
+    }
+
+    public static String emojiOf(int id) {
+        return id == NONE ? "" : emojis[id];
+    }
+
+    public static int count() {
+        return count;
+    }
+}
@@ -0,0 +1,337 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+public class GameAnalytics { // Statystyki rozgrywek zbierane na bieżąco - z symulacji i z prawdziwych sesji, wiele wątków naraz
+
+    public static final String LIVE_DIR_PROPERTY = "mw.analytics.dir"; // Np. -Dmw.analytics.dir=analytics - bez niej gra i serwer nic nie zapisują
+    private static final int REFLEX_SLOTS = 2; // Minigra refleksu: 0 = zdana, 1 = mandat
+
+    public enum Ending { //Powód końca gry - kolejność jak w GameLogic.checkGameOver
+        BANKRUPTCY, HAPPINESS, COMFORT
+    }
+
+    private final GameEvent[] events;  // Katalog + dwa wydarzenia zastępcze na końcu
+    private final int[] slotOfId;      // Identyfikator -> pozycja w events, -1 = spoza katalogu
+    private final int[] firstChoice;   // Pozycja pierwszego wyboru wydarzenia w tablicach wyborów
+    private final int quietDaySlot, dayOffSlot;
+
+    private final LongAdder draws = new LongAdder();
+    private final LongAdder unknownDraws = new LongAdder(); // Wydarzenia spoza katalogu (np. inny katalog w testach)
+    private final LongAdder[] eventDraws;
+    private final LongAdder[] choiceCounts;
+    private final LongAdder[] budgetCents;   // Suma zmian budżetu w groszach - bez DoubleAdder i błędów zaokrągleń
+    private final LongAdder[] happinessSum;
+    private final LongAdder[] comfortSum;
+
+    private final StreamingHistogram[] endings = new StreamingHistogram[Ending.values().length]; // Dzień końca gry
+    private final StreamingHistogram survivedDays = new StreamingHistogram(); // Gry, które dotrwały do końca symulacji
+
+    private static class Holder { //Sesje z okna gry i serwera - raport przy wyjściu tylko na życzenie (LIVE_DIR_PROPERTY)
+        static final GameAnalytics INSTANCE = create();
+
+        private static GameAnalytics create() {
+            GameAnalytics analytics = new GameAnalytics(EventCatalog.getDefault());
+            String dir = System.getProperty(LIVE_DIR_PROPERTY);
+            if (dir != null && !dir.isBlank()) analytics.writeOnExit(Path.of(dir));
+            return analytics;
+        }
+    }
+
+    public static GameAnalytics getDefault() {
+        return Holder.INSTANCE;
+    }
+
+    public GameAnalytics(EventCatalog catalog) {
+        int n = catalog.size();
+        this.events = new GameEvent[n + 2];
+        for (int i = 0; i < n; i++) events[i] = catalog.event(i);
+        this.quietDaySlot = n;
+        this.dayOffSlot = n + 1;
+        events[quietDaySlot] = EventManager.QUIET_DAY;
+        events[dayOffSlot] = EventManager.DAY_OFF;
+
+        int maxId = 0;
+        for (int i = 0; i < n; i++) maxId = Math.max(maxId, events[i].id);
+        this.slotOfId = new int[maxId + 1];
+        Arrays.fill(slotOfId, -1);
+        for (int i = 0; i < n; i++) {
+            if (events[i].id >= 0) slotOfId[events[i].id] = i;
+        }
+
+        this.firstChoice = new int[events.length + 1];
+        for (int i = 0; i < events.length; i++) firstChoice[i + 1] = firstChoice[i] + slotsOf(events[i]);
+        int cells = firstChoice[events.length];
+        this.eventDraws = adders(events.length);
+        this.choiceCounts = adders(cells);
+        this.budgetCents = adders(cells);
+        this.happinessSum = adders(cells);
+        this.comfortSum = adders(cells);
+        for (int i = 0; i < endings.length; i++) endings[i] = new StreamingHistogram();
+    }
+
+    private static int slotsOf(GameEvent event) {
+        return event.minigameType == GameEvent.MinigameType.REFLEX_LIGHTS ? REFLEX_SLOTS : event.choices.size();
+    }
+
+    private static LongAdder[] adders(int n) { //LongAdder rozkłada zapis na paski dopiero przy rywalizacji wątków
+        LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+
+    private int slotOf(GameEvent event) {
+        if (event == EventManager.QUIET_DAY) return quietDaySlot;
+        if (event == EventManager.DAY_OFF) return dayOffSlot;
+        int slot = event.id >= 0 && event.id < slotOfId.length ? slotOfId[event.id] : -1;
+        return slot >= 0 && events[slot] == event ? slot : -1;
+    }
+
+    void eventDrawn(GameEvent event) {
+        countDraw(event, 1);
+    }
+
+    void drawUndone(GameEvent event) { //Tura cofnięta przed decyzją (GameLogic.undoDay)
+        countDraw(event, -1);
+    }
+
+    private void countDraw(GameEvent event, int sign) {
+        draws.add(sign);
+        int slot = slotOf(event);
+        if (slot < 0) unknownDraws.add(sign);
+        else eventDraws[slot].add(sign);
+    }
+
+    void turnResolved(GameEvent event, int choice, double budgetDelta, int happinessDelta, int comfortDelta) { //Zmiana statystyk od losowania do decyzji (z mandatem)
+        countResolution(event, choice, budgetDelta, happinessDelta, comfortDelta, 1);
+    }
+
+    void resolutionUndone(GameEvent event, int choice, double budgetDelta, int happinessDelta, int comfortDelta) { //Te same wartości co w turnResolved
+        countResolution(event, choice, budgetDelta, happinessDelta, comfortDelta, -1);
+    }
+
+    private void countResolution(GameEvent event, int choice, double budgetDelta, int happinessDelta, int comfortDelta, int sign) {
+        int slot = slotOf(event);
+        if (slot < 0 || choice < 0 || choice >= firstChoice[slot + 1] - firstChoice[slot]) return;
+        int cell = firstChoice[slot] + choice;
+        choiceCounts[cell].add(sign);
+        budgetCents[cell].add(sign * Math.round(budgetDelta * 100));
+        happinessSum[cell].add(sign * happinessDelta);
+        comfortSum[cell].add(sign * comfortDelta);
+    }
+
+    void gameOver(Ending ending, int days) {
+        endings[ending.ordinal()].record(days);
+    }
+
+    void gameOverUndone(Ending ending, int days) { //Przegrana odwołana cofnięciem tury
+        endings[ending.ordinal()].remove(days);
+    }
+
+    void survived(int days) {
+        survivedDays.record(days);
+    }
+
+    public void merge(GameAnalytics other) { //Ten sam katalog - np. wyniki z kilku procesów symulacji
+        if (other.events.length != events.length) throw new IllegalArgumentException("różne katalogi wydarzeń");
+        draws.add(other.draws.sum());
+        unknownDraws.add(other.unknownDraws.sum());
+        for (int i = 0; i < eventDraws.length; i++) eventDraws[i].add(other.eventDraws[i].sum());
+        for (int i = 0; i < choiceCounts.length; i++) {
+            choiceCounts[i].add(other.choiceCounts[i].sum());
+            budgetCents[i].add(other.budgetCents[i].sum());
+            happinessSum[i].add(other.happinessSum[i].sum());
+            comfortSum[i].add(other.comfortSum[i].sum());
+        }
+        for (int i = 0; i < endings.length; i++) endings[i].merge(other.endings[i]);
+        survivedDays.merge(other.survivedDays);
+    }
+
+    public long draws() {
+        return draws.sum();
+    }
+
+    public double fallbackRate() { //Udział dni, w których nie było żadnego pasującego wydarzenia
+        long n = draws.sum();
+        return n == 0 ? 0 : (double) (eventDraws[quietDaySlot].sum() + eventDraws[dayOffSlot].sum()) / n;
+    }
+
+    public long games() {
+        long n = survivedDays.count();
+        for (StreamingHistogram ending : endings) n += ending.count();
+        return n;
+    }
+
+    private List<long[]> survivalCurve() { //[dzień, gry zakończone najpóźniej tego dnia] - tylko dni, w których ktoś przegrał
+        long[] ended = new long[StreamingHistogram.BUCKETS];
+        for (StreamingHistogram ending : endings) {
+            long[] counts = ending.counts();
+            for (int b = 0; b < counts.length; b++) ended[b] += counts[b];
+        }
+        List<long[]> curve = new ArrayList<>();
+        long cumulative = 0;
+        for (int b = 0; b < ended.length; b++) {
+            if (ended[b] == 0) continue;
+            cumulative += ended[b];
+            curve.add(new long[]{StreamingHistogram.highestValue(b), cumulative});
+        }
+        return curve;
+    }
+
+    public void write(Path file) throws IOException { //Format z rozszerzenia: .json, w pozostałych przypadkach CSV
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (file.getFileName().toString().endsWith(".json")) writeJson(out);
+            else writeCsv(out);
+        }
+    }
+
+    public void writeCsv(Writer out) throws IOException { //Jedna wartość na wiersz: metryka,wydarzenie,wybór,dzień,wartość
+        out.write("metric,event,choice,day,value\n");
+        csv(out, "draws", "", "", "", draws.sum());
+        csv(out, "unknown_draws", "", "", "", unknownDraws.sum());
+        csv(out, "fallback_rate", "", "", "", fallbackRate());
+        for (int slot = 0; slot < events.length; slot++) {
+            long drawn = eventDraws[slot].sum();
+            if (drawn == 0) continue;
+            String id = Integer.toString(events[slot].id);
+            csv(out, slot == quietDaySlot ? "quiet_day" : slot == dayOffSlot ? "day_off" : "event_draws", id, "", "", drawn);
+            long resolved = 0;
+            for (int cell = firstChoice[slot]; cell < firstChoice[slot + 1]; cell++) resolved += choiceCounts[cell].sum();
+            for (int cell = firstChoice[slot]; cell < firstChoice[slot + 1]; cell++) {
+                long n = choiceCounts[cell].sum();
+                if (n == 0) continue;
+                String choice = Integer.toString(cell - firstChoice[slot]);
+                csv(out, "choice_count", id, choice, "", n);
+                csv(out, "choice_share", id, choice, "", (double) n / resolved);
+                csv(out, "avg_budget_delta", id, choice, "", budgetCents[cell].sum() / 100.0 / n);
+                csv(out, "avg_happiness_delta", id, choice, "", (double) happinessSum[cell].sum() / n);
+                csv(out, "avg_comfort_delta", id, choice, "", (double) comfortSum[cell].sum() / n);
+            }
+        }
+        for (Ending ending : Ending.values()) {
+            long[] counts = endings[ending.ordinal()].counts();
+            String metric = "game_over_" + ending.name().toLowerCase(Locale.ROOT);
+            for (int b = 0; b < counts.length; b++) {
+                if (counts[b] != 0) csv(out, metric, "", "", Long.toString(StreamingHistogram.highestValue(b)), counts[b]);
+            }
+        }
+        csv(out, "survived", "", "", "", survivedDays.count());
+        long games = games();
+        for (long[] point : survivalCurve()) {
+            csv(out, "survival", "", "", Long.toString(point[0]), 1.0 - (double) point[1] / games);
+        }
+    }
+
+    private static void csv(Writer out, String metric, String event, String choice, String day, long value) throws IOException {
+        out.write(metric + "," + event + "," + choice + "," + day + "," + value + "\n");
+    }
+
+    private static void csv(Writer out, String metric, String event, String choice, String day, double value) throws IOException {
+        out.write(metric + "," + event + "," + choice + "," + day + "," + String.format(Locale.ROOT, "%.6g", value) + "\n");
+    }
+
+    public void writeJson(Writer out) throws IOException { //Ten sam zakres co CSV, z opisami wydarzeń i wyborów
+        StringBuilder json = new StringBuilder(4096);
+        json.append("{\"draws\":").append(draws.sum())
+                .append(",\"unknownDraws\":").append(unknownDraws.sum())
+                .append(",\"fallbacks\":{\"quietDay\":").append(eventDraws[quietDaySlot].sum())
+                .append(",\"dayOff\":").append(eventDraws[dayOffSlot].sum())
+                .append(",\"rate\":").append(number(fallbackRate())).append('}');
+
+        long games = games();
+        json.append(",\"games\":{\"total\":").append(games).append(",\"survived\":").append(survivedDays.count());
+        for (Ending ending : Ending.values()) {
+            StreamingHistogram days = endings[ending.ordinal()];
+            json.append(",\"").append(ending.name().toLowerCase(Locale.ROOT)).append("\":{\"count\":").append(days.count())
+                    .append(",\"meanDay\":").append(number(days.mean()))
+                    .append(",\"p10\":").append(days.valueAtQuantile(0.1))
+                    .append(",\"p50\":").append(days.valueAtQuantile(0.5))
+                    .append(",\"p90\":").append(days.valueAtQuantile(0.9)).append('}');
+        }
+        json.append("},\"survival\":[");
+        boolean first = true;
+        for (long[] point : survivalCurve()) {
+            if (!first) json.append(',');
+            first = false;
+            json.append('[').append(point[0]).append(',').append(number(1.0 - (double) point[1] / games)).append(']');
+        }
+
+        json.append("],\"events\":[");
+        first = true;
+        for (int slot = 0; slot < events.length; slot++) {
+            long drawn = eventDraws[slot].sum();
+            if (drawn == 0) continue;
+            if (!first) json.append(',');
+            first = false;
+            GameEvent event = events[slot];
+            json.append("{\"id\":").append(event.id).append(",\"description\":").append(string(event.description))
+                    .append(",\"draws\":").append(drawn).append(",\"choices\":[");
+            long resolved = 0;
+            for (int cell = firstChoice[slot]; cell < firstChoice[slot + 1]; cell++) resolved += choiceCounts[cell].sum();
+            for (int cell = firstChoice[slot]; cell < firstChoice[slot + 1]; cell++) {
+                int choice = cell - firstChoice[slot];
+                long n = choiceCounts[cell].sum();
+                if (choice > 0) json.append(',');
+                json.append("{\"index\":").append(choice).append(",\"label\":").append(string(labelOf(event, choice)))
+                        .append(",\"count\":").append(n)
+                        .append(",\"share\":").append(number(resolved == 0 ? 0 : (double) n / resolved))
+                        .append(",\"avgBudget\":").append(number(n == 0 ? 0 : budgetCents[cell].sum() / 100.0 / n))
+                        .append(",\"avgHappiness\":").append(number(n == 0 ? 0 : (double) happinessSum[cell].sum() / n))
+                        .append(",\"avgComfort\":").append(number(n == 0 ? 0 : (double) comfortSum[cell].sum() / n))
+                        .append('}');
+            }
+            json.append("]}");
+        }
+        json.append("]}\n");
+        out.write(json.toString());
+    }
+
+    private static String labelOf(GameEvent event, int choice) {
+        if (event.minigameType == GameEvent.MinigameType.REFLEX_LIGHTS) return choice == 0 ? "zdana" : "mandat";
+        return event.choices.get(choice).label;
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.6g", value);
+    }
+
+    private static String string(String text) { //Cudzysłów, ukośnik i znaki sterujące - reszta UTF-8 bez zmian
+        StringBuilder sb = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private void writeOnExit(Path dir) { //Raport z sesji tego uruchomienia - pomijany, gdy nic nie rozegrano
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (draws.sum() == 0) return;
+            String name = "live-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            try {
+                write(dir.resolve(name + ".json"));
+                write(dir.resolve(name + ".csv"));
+            } catch (IOException error) {
+                System.out.println("Błąd zapisu statystyk rozgrywek: " + error.getMessage());
+            }
+        }, "analytics-write"));
+    }
+}
@@ -1,21 +1,32 @@
+import java.util.Arrays;
 import java.util.List;
 
 public class GameEvent { //Wydarzenia i ich własności
+    public static final int NO_EVENT = -1;
+
+    final int id; // Stały identyfikator - zapisywany w historii i plikach zapisu
     String description;
     List<Choice> choices;
 
     boolean isRepeatable;
-    String requiredItem;
-    String forbiddenItem;
+    int requiredFlag;
+    int forbiddenFlag;
+    Condition condition;           // Dodatkowe warunki (progi, dni, cooldown), null = brak
     MinigameType minigameType;
+    double weight;                 // Względna częstość losowania
+    double[] bandMultipliers;      // Mnożnik wagi dla każdego StatBand (null = brak)
 
-    public GameEvent(String description, List<Choice> choices) { //Definiuje wydarzenie
+    public GameEvent(int id, String description, List<Choice> choices) { //Definiuje wydarzenie
+        this.id = id;
         this.description = description;
         this.choices = choices;
         this.isRepeatable = false;
-        this.requiredItem = null;
-        this.forbiddenItem = null;
+        this.requiredFlag = FlagRegistry.NONE;
+        this.forbiddenFlag = FlagRegistry.NONE;
+        this.condition = null;
         this.minigameType = MinigameType.NONE;
+        this.weight = 1.0;
+        this.bandMultipliers = null;
     }
 
 
@@ -26,30 +37,81 @@ public class GameEvent { //Wydarzenia i ich własności
     }
 
 
+    public enum StatBand { //Przedziały statystyk, od których może zależeć waga wydarzenia
+        LOW_BUDGET,
+        LOW_HAPPINESS,
+        LOW_COMFORT;
+
+        public static final int COUNT = values().length;
+        public static final int MASKS = 1 << COUNT;
+
+        static final double LOW_BUDGET_LIMIT = 500;
+        static final int LOW_STAT_LIMIT = 30;
+
+        public static int maskOf(PlayerState player) {
+            return maskOf(player.budget, player.happiness, player.comfort);
+        }
+
+        public static int maskOf(double budget, int happiness, int comfort) {
+            int mask = 0;
+            if (budget < LOW_BUDGET_LIMIT) mask |= 1 << LOW_BUDGET.ordinal();
+            if (happiness < LOW_STAT_LIMIT) mask |= 1 << LOW_HAPPINESS.ordinal();
+            if (comfort < LOW_STAT_LIMIT) mask |= 1 << LOW_COMFORT.ordinal();
+            return mask;
+        }
+    }
+
+
     public GameEvent setRepeatable(boolean repeatable) {
         this.isRepeatable = repeatable;
         return this;
     }
     public GameEvent setRequiredItem(String item) {
-        this.requiredItem = item;
+        this.requiredFlag = FlagRegistry.idOf(item);
         return this;
     }
     public GameEvent setForbiddenItem(String item) {
-        this.forbiddenItem = item;
+        this.forbiddenFlag = FlagRegistry.idOf(item);
+        return this;
+    }
+    public GameEvent setCondition(String expression) { //Składnia w Condition - parsowana tu, raz
+        this.condition = expression == null ? null : Condition.parse(expression);
         return this;
     }
     public GameEvent setMinigame(MinigameType type) {
         this.minigameType = type;
         return this;
     }
+    public GameEvent setWeight(double weight) {
+        this.weight = weight;
+        return this;
+    }
+    public GameEvent setWeightMultiplier(StatBand band, double multiplier) { //Np. częściej przy niskim budżecie
+        if (bandMultipliers == null) {
+            bandMultipliers = new double[StatBand.COUNT];
+            Arrays.fill(bandMultipliers, 1.0);
+        }
+        bandMultipliers[band.ordinal()] = multiplier;
+        return this;
+    }
+
+    double weightFor(int bandMask) { //Waga przy danej kombinacji przedziałów statystyk
+        double w = weight;
+        if (bandMultipliers != null) {
+            for (int b = 0; b < StatBand.COUNT; b++) {
+                if ((bandMask & (1 << b)) != 0) w *= bandMultipliers[b];
+            }
+        }
+        return w;
+    }
 
     public static class Choice { //Własności wyborów
         String label;
         double cost;
         int happinessEffect;
         int comfortEffect;
-        String flagToAdd;
-        String flagToRemove;
+        int flagToAdd;
+        int flagToRemove;
 
         public Choice(String label, double cost, int hap, int com, String flagToAdd) {
             this(label, cost, hap, com, flagToAdd, null);
@@ -60,8 +122,8 @@ public class GameEvent { //Wydarzenia i ich własności
             this.cost = cost;
             this.happinessEffect = hap;
             this.comfortEffect = com;
-            this.flagToAdd = flagToAdd;
-            this.flagToRemove = flagToRemove;
+            this.flagToAdd = FlagRegistry.idOf(flagToAdd);
+            this.flagToRemove = FlagRegistry.idOf(flagToRemove);
         }
     }
 }
\ No newline at end of file
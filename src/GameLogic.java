@@ -1,101 +1,343 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
 public class GameLogic { // Klasa zawierająca "logikę" rozgrywki
 
+    private static final GameMetrics METRICS = GameMetrics.getDefault();
+    private static final Path REPLAY_DIR = Path.of("replays");
+    public static final double REFLEX_MANDATE = 150;
+    public static final int DEFAULT_REWIND_DAYS = 10;
+
     private PlayerState player;
     private EventManager eventManager;
     private boolean gameRunning;
+    private boolean autosave;
+    private int journaledHistory; // Ile wpisów historii trafiło już do zapisu
+    private String slot;
+    private int timingMask; // Pomiar czasu co (timingMask + 1). wywołanie - 0 = każde
+    private int timingTick;
+
+    private long seed; // Ziarno sesji - z niego powstają strumienie losowe wydarzeń i minigier
+    private RandomGenerator minigameRandom;
+    private GameEvent currentEvent;
+    private final ReplayLog replay = new ReplayLog();
+    private GameAnalytics analytics; // null = bez statystyk (testy, odtwarzanie)
+    private int turns; // Dni rozegrane w tej sesji, przez wszystkie miesiące
+    private double turnBudget; // Statystyki w chwili losowania - do zmian za całą turę
+    private int turnHappiness, turnComfort;
+
+    private record Checkpoint(PlayerState state, EventIndex.Snapshot availability, GameEvent event, int turns) { //Stan tuż po losowaniu, przed decyzją
+    }
+
+    private record Resolution(int choice, double budgetDelta, int happinessDelta, int comfortDelta) { //Co trafiło do statystyk przy decyzji - do odjęcia przy cofaniu
+    }
+
+    private Checkpoint[] rewind = new Checkpoint[0]; // Bufor cykliczny ostatnich dni - kopie stanu dzielą historię
+    private Resolution[] resolutions = new Resolution[0]; // Równolegle do rewind, null = bez decyzji lub bez statystyk
+    private GameAnalytics.Ending recordedEnding; // Koniec gry już w statystykach - odwoływany przez cofnięcie
+    private int rewindHead; // Następne miejsce zapisu
+    private int rewindCount;
+    private boolean resolvedSinceDraw; // Po losowaniu zapadła już decyzja (wybór, minigra, mandat)
 
     public GameLogic() {
-        this.eventManager = new EventManager();
+        this(new EventManager(), true);
+        this.rewind = new Checkpoint[DEFAULT_REWIND_DAYS];
+        this.resolutions = new Resolution[DEFAULT_REWIND_DAYS];
+        this.analytics = GameAnalytics.getDefault();
+    }
+
+    public GameLogic(EventManager eventManager, boolean autosave) { //autosave = false -> brak zapisu na dysk (np. symulacja)
+        this.eventManager = eventManager;
         this.gameRunning = false;
+        this.autosave = autosave;
+    }
+
+    public GameLogic setTimingSampleRate(int everyNth) { //Dla symulacji - nanoTime kosztuje tyle co cała tura
+        if (Integer.bitCount(everyNth) != 1) throw new IllegalArgumentException("oczekiwano potęgi dwójki: " + everyNth);
+        this.timingMask = everyNth - 1;
+        return this;
+    }
+
+    public GameLogic setRewindDepth(int days) { //0 = bez cofania (symulacja, serwer)
+        this.rewind = new Checkpoint[days];
+        this.resolutions = new Resolution[days];
+        clearRewind();
+        return this;
+    }
+
+    public GameLogic setAnalytics(GameAnalytics analytics) { //Wspólny dla wielu logik i wątków
+        this.analytics = analytics;
+        return this;
     }
 
     public void startNewGame() {
-        this.player = new PlayerState();
+        startNewGame(SaveSystem.LEGACY_SLOT);
+    }
+
+    public void startNewGame(String slot) {
+        startNewGame(slot, ThreadLocalRandom.current().nextLong());
+    }
+
+    public void startNewGame(String slot, long seed) { //Ta sama wartość seed = ta sama sekwencja wydarzeń
+        this.slot = slot;
+        beginSession(new PlayerState(), seed);
+        snapshot();
+    }
+
+    public void startReplay(ReplayLog log) { //Stan początkowy i ziarno z zapisu rozgrywki - dalej sterują nim operacje z logu
+        this.slot = null;
+        beginSession(log.initial().copy(), log.seed());
+    }
+
+    private void beginSession(PlayerState state, long seed) { //Wspólny początek nowej, wczytanej i odtwarzanej rozgrywki
+        this.player = state;
+        this.seed = seed;
+        SplittableRandom root = new SplittableRandom(seed);
+        this.eventManager.setRandom(root.split());
+        this.minigameRandom = root.split();
         this.eventManager.resetEvents();
+        this.eventManager.resetCooldowns();
+        this.eventManager.removePlayedEvents(player.playedEvents);
+        this.currentEvent = null;
         this.gameRunning = true;
+        this.replay.start(seed, player);
+        this.turns = 0;
+        clearRewind();
     }
 
-    public boolean loadGame() {
-        PlayerState loaded = SaveSystem.loadGame();
+    public boolean loadGame(String slot) {
+        SaveService.getDefault().flush();
+        PlayerState loaded = SaveSystem.loadGame(slot);
         if (loaded != null) {
-            this.player = loaded;
-            this.eventManager.resetEvents();
-            this.eventManager.removePlayedEvents(player.playedEventsHistory);
-            this.gameRunning = true;
+            this.slot = slot;
+            beginSession(loaded, ThreadLocalRandom.current().nextLong());
+            this.journaledHistory = player.playedEvents.size();
+            snapshot(); // Kompaktuje dziennik (i przenosi starsze zapisy na nowy format)
             return true;
         }
         return false;
     }
 
-    public void saveGame() {
+    public void saveGame() { //Dopisuje turę do dziennika, zapis odbywa się w tle (SaveService)
         if (player != null) {
-            SaveSystem.saveGame(player);
+            SaveService.getDefault().appendTurn(slot, SaveJournal.Record.capture(player, journaledHistory));
+            journaledHistory = player.playedEvents.size();
+        }
+    }
+
+    private void snapshot() { //Pełna migawka - zamyka dotychczasowy dziennik
+        if (autosave && player != null) {
+            SaveService.getDefault().requestSnapshot(slot, player);
+            journaledHistory = player.playedEvents.size();
         }
     }
 
     public GameEvent drawNextEvent() {
+        long start = (++timingTick & timingMask) == 0 ? System.nanoTime() : 0;
         GameEvent event = eventManager.getRandomEvent(player);
-        player.lastEventDescription = event.description;
+        currentEvent = event;
+        replay.draw();
+        player.lastEventId = event.id;
         if (!event.isRepeatable) {
-            player.playedEventsHistory.add(event.description);
+            player.playedEvents.add(event.id);
+        }
+        resolvedSinceDraw = false;
+        turns++;
+        if (analytics != null) {
+            analytics.eventDrawn(event);
+            turnBudget = player.budget;
+            turnHappiness = player.happiness;
+            turnComfort = player.comfort;
         }
+        if (rewind.length > 0) pushCheckpoint(event);
+        if (start != 0) METRICS.drawNextEvent.record(System.nanoTime() - start);
         return event;
     }
 
     public void applyChoice(GameEvent.Choice choice) {
+        long start = (++timingTick & timingMask) == 0 ? System.nanoTime() : 0;
+        replay.choice(choiceIndex(choice));
+        resolvedSinceDraw = true;
         player.budget -= choice.cost;
         player.happiness += choice.happinessEffect;
         player.comfort += choice.comfortEffect;
 
-        if (choice.flagToRemove != null) {
-            player.inventory.remove(choice.flagToRemove);
-        }
-        if (choice.flagToAdd != null && !player.inventory.contains(choice.flagToAdd)) {
-            player.inventory.add(choice.flagToAdd);
-        }
+        player.removeFlag(choice.flagToRemove);
+        player.addFlag(choice.flagToAdd);
         clampStats();
-        saveGame();
+        if (analytics != null && currentEvent != null) turnResolved(choiceIndex(choice));
+        autosave();
+        if (start != 0) METRICS.applyChoice.record(System.nanoTime() - start);
+    }
+
+    private int choiceIndex(GameEvent.Choice choice) { //Pozycja wyboru w ostatnio wylosowanym wydarzeniu, -1 gdy spoza niego
+        if (currentEvent == null) return -1;
+        List<GameEvent.Choice> choices = currentEvent.choices;
+        for (int i = 0; i < choices.size(); i++) {
+            if (choices.get(i) == choice) return i;
+        }
+        return -1;
     }
 
     public void applyMandate(double amount) {
+        replay.mandate(amount);
+        resolvedSinceDraw = true;
         player.budget -= amount;
-        saveGame();
+        autosave();
+    }
+
+    public void resolveReflex(boolean passed) { //Wynik minigry "Przejście na pasach" - mandat za przejście na czerwonym
+        replay.reflex(passed);
+        resolvedSinceDraw = true;
+        if (!passed) player.budget -= REFLEX_MANDATE;
+        if (analytics != null && currentEvent != null) turnResolved(passed ? 0 : 1);
+        autosave();
+    }
+
+    private void turnResolved(int choice) { //Zmiana od losowania - razem z mandatem z minigry
+        Resolution resolution = new Resolution(choice, player.budget - turnBudget,
+                player.happiness - turnHappiness, player.comfort - turnComfort);
+        analytics.turnResolved(currentEvent, choice, resolution.budgetDelta(), resolution.happinessDelta(), resolution.comfortDelta());
+        if (rewindCount > 0) resolutions[(rewindHead - 1 + rewind.length) % rewind.length] = resolution;
     }
 
     public void nextMonth() {
+        replay.nextMonth();
         player.day = 1;
         player.budget += 2000;
         eventManager.resetEvents();
+        snapshot();
     }
 
     public void nextDay() {
+        replay.nextDay();
         player.day++;
     }
 
+    private void pushCheckpoint(GameEvent event) { //O(1) - stan gracza dzieli historię, dostępność to pozycja w dzienniku zmian
+        rewind[rewindHead] = new Checkpoint(player.copy(), eventManager.availability(), event, turns);
+        resolutions[rewindHead] = null;
+        rewindHead = (rewindHead + 1) % rewind.length;
+        rewindCount = Math.min(rewindCount + 1, rewind.length);
+        if (rewindCount == rewind.length) eventManager.discardAvailabilityBefore(rewind[rewindHead].availability());
+    }
+
+    private void clearRewind() {
+        Arrays.fill(rewind, null);
+        Arrays.fill(resolutions, null);
+        recordedEnding = null;
+        rewindHead = 0;
+        rewindCount = 0;
+        resolvedSinceDraw = false;
+    }
+
+    public boolean canUndo() {
+        return rewindCount >= (resolvedSinceDraw ? 1 : 2);
+    }
+
+    public GameEvent undoDay() { //Powrót do ostatniej decyzji: po wyborze - to samo wydarzenie, przed wyborem - poprzedni dzień
+        if (!canUndo()) return null;
+        if (!resolvedSinceDraw) { //Bieżące wydarzenie jeszcze nierozstrzygnięte - odrzucamy jego punkt powrotu
+            rewindHead = (rewindHead - 1 + rewind.length) % rewind.length;
+            GameEvent undrawn = rewind[rewindHead].event();
+            eventManager.drawUndone(undrawn);
+            if (analytics != null) analytics.drawUndone(undrawn);
+            rewind[rewindHead] = null;
+            rewindCount--;
+        }
+        int top = (rewindHead - 1 + rewind.length) % rewind.length;
+        Checkpoint checkpoint = rewind[top];
+        Resolution resolution = resolutions[top];
+        if (resolution != null) { //Decyzja i ewentualna przegrana zostaną policzone ponownie po powtórzeniu tury
+            analytics.resolutionUndone(checkpoint.event(), resolution.choice(), resolution.budgetDelta(),
+                    resolution.happinessDelta(), resolution.comfortDelta());
+            resolutions[top] = null;
+        }
+        if (recordedEnding != null) {
+            analytics.gameOverUndone(recordedEnding, turns);
+            recordedEnding = null;
+        }
+        player = checkpoint.state().copy(); // Punkt powrotu zostaje nietknięty - można cofnąć się do niego ponownie
+        eventManager.restoreAvailability(checkpoint.availability());
+        currentEvent = checkpoint.event();
+        turns = checkpoint.turns();
+        turnBudget = player.budget;
+        turnHappiness = player.happiness;
+        turnComfort = player.comfort;
+        resolvedSinceDraw = false;
+        gameRunning = true;
+        replay.undo();
+        snapshot(); // Dziennik zawiera cofnięte tury - pełna migawka go zastępuje
+        return currentEvent;
+    }
+
     public String checkGameOver() {
         if (player.budget <= 0) {
-            gameRunning = false;
+            endGame(GameAnalytics.Ending.BANKRUPTCY);
             return "BANKRUCTWO!\nNie stac cię na życie.";
         }
         if (player.happiness <= 0) {
-            gameRunning = false;
+            endGame(GameAnalytics.Ending.HAPPINESS);
             return "ZAŁAMANIE NERWOWE!\nTwój poziom szczęścia spadł do zera. Nie masz siły wstać z łóżka.";
         }
         if (player.comfort <= 0) {
-            gameRunning = false;
+            endGame(GameAnalytics.Ending.COMFORT);
             return "WYCIEŃCZENIE!\nTwój poziom komfortu spadł do zera. Nie da się żyć w takich warunkach.";
         }
         return null;
     }
 
+    private void endGame(GameAnalytics.Ending ending) { //checkGameOver bywa wołane kilka razy - liczy się tylko pierwsze
+        if (gameRunning && analytics != null) {
+            analytics.gameOver(ending, turns);
+            if (rewind.length > 0) recordedEnding = ending;
+        }
+        gameRunning = false;
+    }
+
     public boolean isGameRunning() {
         return gameRunning;
     }
 
+    private void autosave() {
+        if (autosave) {
+            saveGame();
+        }
+    }
+
     private void clampStats() {
         player.happiness = Math.max(0, Math.min(100, player.happiness));
         player.comfort = Math.max(0, Math.min(100, player.comfort));
     }
 
     public PlayerState getPlayer() { return player; }
+
+    public String getSlot() { return slot; }
+
+    public long getSeed() { return seed; }
+
+    public int getTurns() { return turns; }
+
+    public RandomGenerator getMinigameRandom() { return minigameRandom; }
+
+    public GameEvent getCurrentEvent() { return currentEvent; }
+
+    public ReplayLog getReplayLog() { return replay; }
+
+    public Path saveReplay() { //Zapis przebiegu sesji do replays/ - do zgłoszeń błędów i testów regresji
+        if (player == null || replay.isEmpty() || !replay.isReplayable()) return null;
+        Path file = REPLAY_DIR.resolve(slot + "-" + Long.toHexString(seed) + ".mwr");
+        try {
+            replay.write(file, player);
+            return file;
+        } catch (IOException error) {
+            System.out.println("Błąd zapisu przebiegu gry: " + error.getMessage());
+            return null;
+        }
+    }
 }
\ No newline at end of file
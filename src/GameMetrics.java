@@ -0,0 +1,91 @@
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class GameMetrics implements GameMetricsMXBean { // Liczniki i histogramy działającej gry, dostępne przez JMX
+
+    public static final String OBJECT_NAME = "mw:type=GameMetrics";
+
+    final StreamingHistogram drawNextEvent = new StreamingHistogram();
+    final StreamingHistogram applyChoice = new StreamingHistogram();
+    final StreamingHistogram saveGame = new StreamingHistogram();
+    final StreamingHistogram loadGame = new StreamingHistogram();
+    final StreamingHistogram candidateSetSize = new StreamingHistogram();
+    final StreamingHistogram edtDispatch = new StreamingHistogram();
+
+    private final AtomicLong eventPoolSize = new AtomicLong();
+    private final LongAdder quietDayFallbacks = new LongAdder();
+    private final LongAdder dayOffFallbacks = new LongAdder();
+    private final LongAdder saveBytesWritten = new LongAdder();
+    private final LongAdder edtStalls = new LongAdder();
+
+    private static class Holder {
+        static final GameMetrics INSTANCE = new GameMetrics();
+    }
+
+    public static GameMetrics getDefault() {
+        return Holder.INSTANCE;
+    }
+
+    public static void register() { //Wywoływane raz przy starcie gry
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(getDefault(), new ObjectName(OBJECT_NAME));
+        } catch (JMException error) {
+            System.out.println("Nie udało się zarejestrować metryk JMX: " + error.getMessage());
+        }
+    }
+
+    void recordDraw(int poolSize, int candidates) {
+        eventPoolSize.setOpaque(poolSize); // Bez bariery - to tylko podgląd ostatniej wartości
+        candidateSetSize.record(candidates);
+    }
+
+    void quietDay() {
+        quietDayFallbacks.increment();
+    }
+
+    void dayOff() {
+        dayOffFallbacks.increment();
+    }
+
+    void fallbackUndone(boolean quietDay) { //Dzień zastępczy cofnięty w grze - liczniki liczą dni, nie wywołania
+        if (quietDay) quietDayFallbacks.decrement();
+        else dayOffFallbacks.decrement();
+    }
+
+    void bytesWritten(long bytes) {
+        saveBytesWritten.add(bytes);
+    }
+
+    void edtStall() {
+        edtStalls.increment();
+    }
+
+    @Override public StreamingHistogram.Snapshot getDrawNextEventNanos() { return drawNextEvent.snapshot(); }
+    @Override public StreamingHistogram.Snapshot getApplyChoiceNanos() { return applyChoice.snapshot(); }
+    @Override public StreamingHistogram.Snapshot getSaveGameNanos() { return saveGame.snapshot(); }
+    @Override public StreamingHistogram.Snapshot getLoadGameNanos() { return loadGame.snapshot(); }
+    @Override public StreamingHistogram.Snapshot getCandidateSetSize() { return candidateSetSize.snapshot(); }
+    @Override public long getEventPoolSize() { return eventPoolSize.getOpaque(); }
+    @Override public long getQuietDayFallbacks() { return quietDayFallbacks.sum(); }
+    @Override public long getDayOffFallbacks() { return dayOffFallbacks.sum(); }
+    @Override public long getSaveBytesWritten() { return saveBytesWritten.sum(); }
+    @Override public StreamingHistogram.Snapshot getEdtDispatchNanos() { return edtDispatch.snapshot(); }
+    @Override public long getEdtStalls() { return edtStalls.sum(); }
+
+    @Override
+    public void reset() {
+        drawNextEvent.reset();
+        applyChoice.reset();
+        saveGame.reset();
+        loadGame.reset();
+        candidateSetSize.reset();
+        quietDayFallbacks.reset();
+        dayOffFallbacks.reset();
+        saveBytesWritten.reset();
+        edtDispatch.reset();
+        edtStalls.reset();
+    }
+}
@@ -0,0 +1,26 @@
+public interface GameMetricsMXBean { // Atrybuty widoczne w JConsole / VisualVM pod nazwą GameMetrics.OBJECT_NAME
+
+    StreamingHistogram.Snapshot getDrawNextEventNanos();
+
+    StreamingHistogram.Snapshot getApplyChoiceNanos();
+
+    StreamingHistogram.Snapshot getSaveGameNanos();
+
+    StreamingHistogram.Snapshot getLoadGameNanos();
+
+    StreamingHistogram.Snapshot getCandidateSetSize();
+
+    long getEventPoolSize();
+
+    long getQuietDayFallbacks();
+
+    long getDayOffFallbacks();
+
+    long getSaveBytesWritten();
+
+    StreamingHistogram.Snapshot getEdtDispatchNanos();
+
+    long getEdtStalls(); //Obsługi zdarzeń EDT dłuższe niż EdtWatchdog.STALL_THRESHOLD_NANOS
+
+    void reset();
+}
@@ -0,0 +1,256 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+public class GameServer { // Wiele rozgrywek w jednej JVM - każde połączenie obsługuje własny wirtualny wątek
+
+    public static final int DEFAULT_PORT = 7531;
+    static final String SLOT_PREFIX = "sesja-"; // Zapis sesji = zwykły slot SaveSystem
+    private static final int DAYS_IN_MONTH = 30;
+    private static final int BACKLOG = 4096;
+
+    // Protokół tekstowy, jedna linia na polecenie i jedna na odpowiedź:
+    // HELLO [id] -> SESSION id | STATE -> STATE dzień budżet szczęście komfort ekwipunek
+    // DRAW -> EVENT id minigra liczba_wyborów opis | MONTH_END budżet
+    // CHOOSE i / REFLEX 0|1 -> STATE ... | GAME_OVER powód
+    // MONTH -> STATE ... | STATS -> STATS sesje zajęta_pamięć_MB | BYE
+    // Błąd: ERR opis
+
+    private final ServerSocket server;
+    private final boolean persistent;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>(); // Tylko podłączone sesje
+    private final LongAdder requests = new LongAdder();
+
+    private static final class Session { //Stan jednego gracza - katalog wydarzeń jest wspólny (EventCatalog.getDefault)
+        final String id;
+        final GameLogic logic;
+        GameEvent pending; // Wylosowane wydarzenie czekające na wybór
+
+        Session(String id, GameLogic logic) {
+            this.id = id;
+            this.logic = logic;
+        }
+    }
+
+    public GameServer(int port, boolean persistent) throws IOException { //persistent = false -> sesje tylko w pamięci (testy obciążenia)
+        this.server = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        this.persistent = persistent;
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    public GameServer start() { //Przyjmowanie połączeń w tle
+        Thread.ofVirtual().name("serwer-gry").start(this::run);
+        return this;
+    }
+
+    public void run() {
+        System.out.println("Serwer gry nasłuchuje na porcie " + port() + (persistent ? "" : " (bez zapisu)"));
+        Thread.Builder workers = Thread.ofVirtual().name("sesja-", 0); // Jeden builder - kolejne wątki dostają kolejne numery
+        while (!server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                workers.start(() -> serve(client));
+            } catch (IOException error) {
+                if (!server.isClosed()) System.out.println("Błąd połączenia: " + error.getMessage());
+            }
+        }
+    }
+
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private void serve(Socket socket) { //Jedno połączenie = jeden gracz; wątek wirtualny czeka na polecenia bez zajmowania wątku systemowego
+        Session session = null;
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            LineReader in = new LineReader(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            String line;
+            while ((line = in.readLine()) != null) {
+                requests.increment();
+                int space = line.indexOf(' ');
+                String command = space < 0 ? line : line.substring(0, space);
+                String argument = space < 0 ? "" : line.substring(space + 1).trim();
+
+                String response;
+                if ("BYE".equals(command)) {
+                    out.write("BYE\n".getBytes(StandardCharsets.UTF_8));
+                    break;
+                } else if ("HELLO".equals(command)) {
+                    if (session != null) {
+                        response = "ERR sesja już otwarta: " + session.id;
+                    } else {
+                        session = argument.isEmpty() ? newSession() : resumeSession(argument);
+                        response = session == null ? "ERR nie można wznowić sesji " + argument : "SESSION " + session.id;
+                    }
+                } else if ("STATS".equals(command)) {
+                    response = stats();
+                } else if (session == null) {
+                    response = "ERR najpierw HELLO";
+                } else {
+                    response = handle(session, command, argument);
+                }
+                out.write((response + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException error) {
+            // Klient rozłączył się - stan jest już w kolejce zapisu
+        } finally {
+            if (session != null) sessions.remove(session.id, session);
+        }
+    }
+
+    private GameLogic newLogic() {
+        return new GameLogic(new EventManager(EventCatalog.getDefault(), new SplittableRandom()), persistent)
+                .setAnalytics(GameAnalytics.getDefault());
+    }
+
+    private Session newSession() {
+        while (true) {
+            String id = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+            if (persistent && SaveSystem.slotExists(SLOT_PREFIX + id)) continue;
+            Session session = new Session(id, newLogic());
+            if (sessions.putIfAbsent(id, session) != null) continue;
+            session.logic.startNewGame(SLOT_PREFIX + id);
+            return session;
+        }
+    }
+
+    private Session resumeSession(String id) { //Tylko z zapisu - sesja rozłączona nie zajmuje pamięci
+        if (!persistent || !id.matches("[0-9a-f]{1,16}")) return null;
+        Session session = new Session(id, newLogic());
+        if (sessions.putIfAbsent(id, session) != null) return null; // Już podłączona z innego połączenia
+        if (!session.logic.loadGame(SLOT_PREFIX + id)) {
+            sessions.remove(id, session);
+            return null;
+        }
+        return session;
+    }
+
+    private String handle(Session session, String command, String argument) { //Ta sama kolejność kroków co w GameWindow
+        GameLogic logic = session.logic;
+        PlayerState player = logic.getPlayer();
+        switch (command) {
+            case "STATE":
+                return state(player);
+            case "DRAW": {
+                if (!logic.isGameRunning()) return "ERR gra zakończona";
+                if (session.pending != null) return "ERR najpierw wybierz opcję";
+                if (player.day > DAYS_IN_MONTH) return String.format(Locale.ROOT, "MONTH_END %.2f", player.budget);
+                GameEvent event = logic.drawNextEvent();
+                session.pending = event;
+                return "EVENT " + event.id + " " + event.minigameType + " " + event.choices.size() + " "
+                        + event.description.replace('\n', ' ');
+            }
+            case "CHOOSE": {
+                GameEvent event = session.pending;
+                if (event == null || event.choices.isEmpty()) return "ERR brak wydarzenia z wyborem";
+                int index;
+                try {
+                    index = Integer.parseInt(argument);
+                } catch (NumberFormatException error) {
+                    return "ERR niepoprawny numer wyboru: " + argument;
+                }
+                if (index < 0 || index >= event.choices.size()) return "ERR niepoprawny numer wyboru: " + argument;
+                logic.applyChoice(event.choices.get(index));
+                return endTurn(session);
+            }
+            case "REFLEX": {
+                GameEvent event = session.pending;
+                if (event == null || event.minigameType != GameEvent.MinigameType.REFLEX_LIGHTS) return "ERR brak minigry";
+                logic.resolveReflex("1".equals(argument));
+                return endTurn(session);
+            }
+            case "MONTH":
+                if (!logic.isGameRunning() || player.day <= DAYS_IN_MONTH) return "ERR miesiąc jeszcze trwa";
+                logic.nextMonth();
+                return state(player);
+            default:
+                return "ERR nieznane polecenie: " + command;
+        }
+    }
+
+    private String stats() { //Diagnostyka dla testu obciążenia (bez HELLO) - bieżąca pamięć, bez wymuszania odśmiecania
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return "STATS " + sessions.size() + " " + used / (1024 * 1024);
+    }
+
+    private static String endTurn(Session session) { //Przycisk "Dalej" - koniec gry albo kolejny dzień
+        session.pending = null;
+        GameLogic logic = session.logic;
+        String gameOver = logic.checkGameOver();
+        if (gameOver != null) return "GAME_OVER " + gameOver.replace('\n', ' ');
+        logic.nextDay();
+        return state(logic.getPlayer());
+    }
+
+    private static String state(PlayerState player) {
+        return String.format(Locale.ROOT, "STATE %d %.2f %d %d %x",
+                player.day, player.budget, player.happiness, player.comfort, player.inventory);
+    }
+
+    static final class LineReader { //Odczyt linii z małym buforem - InputStreamReader trzymałby 8 KB na połączenie
+        private final InputStream in;
+        private final byte[] buffer = new byte[128];
+        private int position, limit;
+        private byte[] line = new byte[64];
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        String readLine() throws IOException { //null = koniec strumienia
+            int length = 0;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return length == 0 ? null : decode(length);
+                    }
+                }
+                byte b = buffer[position++];
+                if (b == '\n') return decode(length);
+                if (length == line.length) line = Arrays.copyOf(line, length * 2);
+                line[length++] = b;
+            }
+        }
+
+        private String decode(int length) {
+            if (length > 0 && line[length - 1] == '\r') length--;
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    public static void main(String[] args) throws IOException { //Użycie: GameServer [port] [--no-save]
+        int port = DEFAULT_PORT;
+        boolean persistent = true;
+        for (String arg : args) {
+            if ("--no-save".equals(arg)) persistent = false;
+            else port = Integer.parseInt(arg);
+        }
+        GameMetrics.register();
+        new GameServer(port, persistent).run();
+    }
+}
@@ -1,19 +1,57 @@
 import javax.swing.*;
+import javax.swing.border.Border;
 import javax.swing.border.CompoundBorder;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
 
 public class GameWindow extends JFrame { // Generuje okna gry
 
+    private static final Font DESCRIPTION_FONT = new Font("Arial", Font.PLAIN, 26);
+    private static final Font BUTTON_FONT = new Font("Arial", Font.PLAIN, 22);
+    private static final Font RESULT_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Color RESULT_BACKGROUND = new Color(255, 252, 240);
+    private static final Color NEXT_BUTTON_COLOR = new Color(173, 216, 230);
+    private static final Font EMPTY_BONUS_FONT = new Font("Arial", Font.ITALIC, 14);
+    private static final Font DAY_FONT = new Font("Arial", Font.BOLD, 22);
+    private static final Font BUDGET_FONT = new Font("Arial", Font.BOLD, 24);
+    private static final Font SMALL_BOLD_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font STAT_LABEL_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Border BONUS_BORDER = new EmptyBorder(5, 5, 5, 5);
+    private static final Border EVENT_BORDER = new EmptyBorder(40, 60, 40, 60);
+    private static final Border RESULT_BORDER = new CompoundBorder(
+            new LineBorder(new Color(70, 130, 180), 4, true), new EmptyBorder(20, 20, 20, 20));
+
+    private static final String EVENT_CARD = "event";
+    private static final String RESULT_CARD = "result";
+    private static final String MINIGAME_CARD = "minigame";
+    private static final int CHOICE_ROWS = 4;
+
     private JPanel mainPanel;
+    private JPanel gameScreen; // Budowany raz (zwykle w tle po pokazaniu menu) i używany w kolejnych grach
     private JPanel rightInfoPanel;
     private JPanel eventPanel;
+    private CardLayout eventCards;
+    private String shownCard;
     private JTextArea eventDescription;
     private JPanel choicesContainer;
+    private JButton[] choiceButtons = new JButton[0]; // Stała pula przycisków - zmieniane są tylko etykiety
+    private GameEvent.Choice[] shownChoices = new GameEvent.Choice[0];
+    private int visibleChoices;
+    private JTextArea resultText;
     private JLabel dayLabel, budgetLabel;
     private RoundedPanel bonusPanel;
+    private JLabel emptyBonusLabel;
+    private final JLabel[] bonusLabels = new JLabel[FlagRegistry.MAX_FLAGS];
+    private long shownInventory;
     private JProgressBar barHappiness, barComfort;
+    private JButton undoButton;
 
     private GameLogic logic;
     private MinigameManager minigameManager;
@@ -22,13 +60,29 @@ public class GameWindow extends JFrame { // Generuje okna gry
         super("Magia Wydawania");
         setSize(1280, 1024);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                saveReplay();
+            }
+        });
         setLocationRelativeTo(null);
-
-        this.logic = new GameLogic();
         initMainMenu();
     }
 
+    static Font[] fonts() { //Do rozgrzania pamięci podręcznej glifów przy starcie
+        return new Font[]{DESCRIPTION_FONT, BUTTON_FONT, RESULT_FONT, EMPTY_BONUS_FONT,
+                DAY_FONT, BUDGET_FONT, SMALL_BOLD_FONT, STAT_LABEL_FONT};
+    }
+
+    private GameLogic logic() { //Logika (i katalog wydarzeń) dopiero przy pierwszej potrzebie - menu nie czeka
+        if (logic == null) logic = new GameLogic();
+        return logic;
+    }
+
     private void initMainMenu() {
+        if (minigameManager != null) minigameManager.stop();
+        saveReplay();
         mainPanel = new JPanel(new GridBagLayout());
         mainPanel.setBackground(new Color(40, 44, 52));
 
@@ -37,15 +91,21 @@ public class GameWindow extends JFrame { // Generuje okna gry
         JButton btnExit = createStyledButton("Wyjdź");
 
         btnNew.addActionListener(e -> {
-            logic.startNewGame();
+            String slot = askNewSlotName();
+            if (slot == null) return;
+            Startup.gameRequested();
+            logic().startNewGame(slot);
             startGameUI();
         });
 
         btnLoad.addActionListener(e -> {
-            if (logic.loadGame()) {
+            String slot = chooseSlotToLoad();
+            if (slot == null) return;
+            Startup.gameRequested();
+            if (logic().loadGame(slot)) {
                 startGameUI();
             } else {
-                JOptionPane.showMessageDialog(this, "Brak zapisu gry!");
+                JOptionPane.showMessageDialog(this, "Nie udało się wczytać zapisu!");
             }
         });
 
@@ -61,32 +121,168 @@ public class GameWindow extends JFrame { // Generuje okna gry
         revalidate();
     }
 
-    private void startGameUI() {
-        mainPanel = new JPanel(new BorderLayout());
+    private String askNewSlotName() { //Nazwa slotu dla nowej gry
+        String suggested = "Gra " + new SimpleDateFormat("yyyy-MM-dd HH-mm").format(new Date());
+        while (true) {
+            String name = (String) JOptionPane.showInputDialog(this, "Nazwa zapisu:", "Nowa Gra",
+                    JOptionPane.PLAIN_MESSAGE, null, null, suggested);
+            if (name == null) return null;
+            name = name.trim();
+            if (!SaveSystem.isValidSlotName(name)) {
+                JOptionPane.showMessageDialog(this, "Nazwa może zawierać litery, cyfry, spacje, - i _ (max 40 znaków).");
+                continue;
+            }
+            if (SaveSystem.slotExists(name)) {
+                int answer = JOptionPane.showConfirmDialog(this, "Zapis \"" + name + "\" już istnieje. Nadpisać?",
+                        "Nowa Gra", JOptionPane.YES_NO_OPTION);
+                if (answer != JOptionPane.YES_OPTION) continue;
+            }
+            return name;
+        }
+    }
+
+    private String chooseSlotToLoad() { //Lista zapisów zbudowana z samych nagłówków
+        java.util.List<SaveSystem.SlotInfo> slots = SaveSystem.listSlots();
+        if (slots.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Brak zapisu gry!");
+            return null;
+        }
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        DefaultListModel<String> model = new DefaultListModel<>();
+        for (SaveSystem.SlotInfo slot : slots) {
+            SaveFormat.Header h = slot.header;
+            model.addElement(String.format("%s  |  Dzień %d  |  %.2f PLN  |  %s",
+                    slot.name, h.day, h.budget, dateFormat.format(new Date(h.timestamp))));
+        }
+        JList<String> list = new JList<>(model);
+        list.setFont(new Font("Arial", Font.PLAIN, 16));
+        list.setSelectedIndex(0);
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.setPreferredSize(new Dimension(600, 300));
+
+        int answer = JOptionPane.showConfirmDialog(this, scroll, "Wczytaj Grę",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (answer != JOptionPane.OK_OPTION || list.getSelectedIndex() < 0) return null;
+        return slots.get(list.getSelectedIndex()).name;
+    }
+
+    public void prepareGameScreen() { //Drzewo komponentów ekranu gry - wywoływane na EDT, gdy menu już jest widoczne
+        if (gameScreen != null) return;
+        gameScreen = new JPanel(new BorderLayout());
         initRightPanel();
 
-        eventPanel = new JPanel();
-        eventPanel.setBorder(new EmptyBorder(40, 60, 40, 60));
-        eventPanel.setLayout(new BorderLayout());
+        eventCards = new CardLayout();
+        eventPanel = new FixedSizePanel(eventCards);
+        eventPanel.setBorder(EVENT_BORDER);
+
+        eventPanel.add(createEventCard(), EVENT_CARD);
+        eventPanel.add(createResultCard(), RESULT_CARD);
+        JPanel minigameCard = new JPanel();
+        eventPanel.add(minigameCard, MINIGAME_CARD);
+        shownCard = EVENT_CARD;
+
+        minigameManager = new MinigameManager(this, minigameCard, logic());
 
-        minigameManager = new MinigameManager(this, eventPanel, logic);
+        gameScreen.add(eventPanel, BorderLayout.CENTER);
+        gameScreen.add(rightInfoPanel, BorderLayout.EAST);
+    }
+
+    private void startGameUI() {
+        prepareGameScreen();
+        mainPanel = gameScreen;
+        setContentPane(mainPanel);
+        revalidate();
+        updateStatsUI();
+        updateBonusUI();
+        nextTurn();
+    }
 
+    private JPanel createEventCard() { //Opis wydarzenia i pula przycisków wyborów
         eventDescription = new JTextArea("Opis...");
-        eventDescription.setFont(new Font("Arial", Font.PLAIN, 26));
+        eventDescription.setFont(DESCRIPTION_FONT);
         eventDescription.setLineWrap(true);
         eventDescription.setWrapStyleWord(true);
         eventDescription.setEditable(false);
         eventDescription.setOpaque(false);
 
-        choicesContainer = new JPanel(new GridLayout(4, 1, 15, 15));
+        choicesContainer = new FixedSizePanel(new GridLayout(CHOICE_ROWS, 1, 15, 15));
+        choiceButtons = new JButton[0];
+        shownChoices = new GameEvent.Choice[0];
+        visibleChoices = 0;
+        ensureChoiceButtons(CHOICE_ROWS);
 
-        mainPanel.add(eventPanel, BorderLayout.CENTER);
-        mainPanel.add(rightInfoPanel, BorderLayout.EAST);
+        JPanel card = new JPanel(new BorderLayout());
+        card.add(eventDescription, BorderLayout.CENTER);
+        card.add(choicesContainer, BorderLayout.SOUTH);
+        return card;
+    }
 
-        setContentPane(mainPanel);
+    private void ensureChoiceButtons(int count) { //Dokłada przyciski tylko, gdy wydarzenie ma więcej wyborów niż kiedykolwiek
+        int old = choiceButtons.length;
+        if (count <= old) return;
+        choiceButtons = Arrays.copyOf(choiceButtons, count);
+        shownChoices = Arrays.copyOf(shownChoices, count);
+        for (int i = old; i < count; i++) {
+            int index = i;
+            JButton btn = createStyledButton("");
+            btn.addActionListener(e -> makeChoice(shownChoices[index]));
+            btn.setVisible(false);
+            choiceButtons[i] = btn;
+            choicesContainer.add(btn);
+        }
+    }
+
+    private JPanel createResultCard() { //Ramka wyniku tworzona raz, przy każdej turze zmienia się tylko tekst
+        JPanel resultFrame = new FixedSizePanel(new BorderLayout());
+        resultFrame.setPreferredSize(new Dimension(600, 400));
+        resultFrame.setBackground(RESULT_BACKGROUND);
+        resultFrame.setBorder(RESULT_BORDER);
+
+        resultText = new JTextArea();
+        resultText.setFont(RESULT_FONT);
+        resultText.setEditable(false);
+        resultText.setLineWrap(true);
+        resultText.setWrapStyleWord(true);
+        resultText.setOpaque(false);
+
+        JButton nextBtn = createStyledButton("Dalej >>");
+        nextBtn.setBackground(NEXT_BUTTON_COLOR);
+        nextBtn.addActionListener(e -> {
+            String gameOverMsg = logic.checkGameOver();
+            if (gameOverMsg != null) {
+                JOptionPane.showMessageDialog(this, gameOverMsg, "Koniec Gry", JOptionPane.ERROR_MESSAGE);
+                initMainMenu();
+            } else {
+                logic.nextDay();
+                updateStatsUI();
+                nextTurn();
+            }
+        });
+
+        resultFrame.add(resultText, BorderLayout.CENTER);
+        resultFrame.add(nextBtn, BorderLayout.SOUTH);
+
+        JPanel card = new JPanel(new GridBagLayout());
+        card.add(resultFrame);
+        return card;
+    }
+
+    private void showCard(String card) { //Przełącza kartę tylko przy faktycznej zmianie
+        if (!card.equals(shownCard)) {
+            if (MINIGAME_CARD.equals(shownCard)) minigameManager.stop();
+            eventCards.show(eventPanel, card);
+            shownCard = card;
+        }
+        undoButton.setEnabled(!MINIGAME_CARD.equals(card) && logic.canUndo()); // Nie w trakcie minigry
+    }
+
+    private void undoDay() { //Przycisk "Cofnij dzień"
+        GameEvent event = logic.undoDay();
+        if (event == null) return;
         updateStatsUI();
         updateBonusUI();
-        nextTurn();
+        showEvent(event);
     }
 
     public void nextTurn() {
@@ -95,11 +291,16 @@ public class GameWindow extends JFrame { // Generuje okna gry
             return;
         }
 
-        GameEvent event = logic.drawNextEvent();
+        showEvent(logic.drawNextEvent());
+        if (Startup.isFirstEventPending()) SwingUtilities.invokeLater(Startup::eventShown); // Po narysowaniu
+    }
 
+    private void showEvent(GameEvent event) { //Wylosowane albo przywrócone przez cofnięcie
         if (event.minigameType == GameEvent.MinigameType.REFLEX_LIGHTS) {
+            showCard(MINIGAME_CARD);
             minigameManager.startReflexGame(event);
         } else if (event.minigameType == GameEvent.MinigameType.MOUSE_CATCH) {
+            showCard(MINIGAME_CARD);
             minigameManager.startMouseGame(event);
         } else {
             displayEvent(event);
@@ -107,24 +308,24 @@ public class GameWindow extends JFrame { // Generuje okna gry
     }
 
     public void displayEvent(GameEvent event) {
-        eventPanel.removeAll();
-        eventPanel.setLayout(new BorderLayout());
-
         eventDescription.setText(event.description);
-        choicesContainer.removeAll();
-        choicesContainer.setLayout(new GridLayout(4, 1, 15, 15));
 
-        for (GameEvent.Choice choice : event.choices) {
-            JButton btn = createStyledButton(choice.label);
-            btn.addActionListener(e -> makeChoice(choice));
-            choicesContainer.add(btn);
+        int count = event.choices.size();
+        ensureChoiceButtons(count);
+        for (int i = 0; i < count; i++) {
+            GameEvent.Choice choice = event.choices.get(i);
+            shownChoices[i] = choice;
+            choiceButtons[i].setText(choice.label);
+        }
+        if (count != visibleChoices) { // Układ zmienia się tylko razem z liczbą wyborów
+            for (int i = 0; i < choiceButtons.length; i++) {
+                choiceButtons[i].setVisible(i < count);
+                if (i >= count) shownChoices[i] = null;
+            }
+            visibleChoices = count;
         }
 
-        eventPanel.add(eventDescription, BorderLayout.CENTER);
-        eventPanel.add(choicesContainer, BorderLayout.SOUTH);
-
-        eventPanel.revalidate();
-        eventPanel.repaint();
+        showCard(EVENT_CARD);
     }
 
     private void makeChoice(GameEvent.Choice choice) {
@@ -142,11 +343,11 @@ public class GameWindow extends JFrame { // Generuje okna gry
         appendStatChange(resultMsg, "Szczęście", choice.happinessEffect);
         appendStatChange(resultMsg, "Komfort", choice.comfortEffect);
 
-        if (choice.flagToAdd != null && logic.getPlayer().inventory.contains(choice.flagToAdd)) {
-            resultMsg.append("\nOTRZYMANO: ").append(" ").append(choice.flagToAdd);
+        if (choice.flagToAdd != FlagRegistry.NONE && logic.getPlayer().hasFlag(choice.flagToAdd)) {
+            resultMsg.append("\nOTRZYMANO: ").append(" ").append(FlagRegistry.nameOf(choice.flagToAdd));
         }
-        if (choice.flagToRemove != null && !logic.getPlayer().inventory.contains(choice.flagToRemove)) {
-            resultMsg.append("\nUTRACONO: ").append(" ").append(choice.flagToRemove);
+        if (choice.flagToRemove != FlagRegistry.NONE && !logic.getPlayer().hasFlag(choice.flagToRemove)) {
+            resultMsg.append("\nUTRACONO: ").append(" ").append(FlagRegistry.nameOf(choice.flagToRemove));
         }
         if (logic.getPlayer().budget < 0) resultMsg.append("\nUWAGA: Debet!");
 
@@ -154,41 +355,8 @@ public class GameWindow extends JFrame { // Generuje okna gry
     }
 
     public void showResultInFrame(String message) {
-        eventPanel.removeAll();
-        eventPanel.setLayout(new GridBagLayout());
-
-        JPanel resultFrame = new JPanel();
-        resultFrame.setLayout(new BorderLayout());
-        resultFrame.setPreferredSize(new Dimension(600, 400));
-        resultFrame.setBackground(new Color(255, 252, 240));
-        resultFrame.setBorder(new CompoundBorder(new LineBorder(new Color(70, 130, 180), 4, true), new EmptyBorder(20, 20, 20, 20)));
-
-        JTextArea resText = new JTextArea(message);
-        resText.setFont(new Font("Arial", Font.BOLD, 20));
-        resText.setEditable(false);
-        resText.setLineWrap(true);
-        resText.setWrapStyleWord(true);
-        resText.setOpaque(false);
-
-        JButton nextBtn = createStyledButton("Dalej >>");
-        nextBtn.setBackground(new Color(173, 216, 230));
-        nextBtn.addActionListener(e -> {
-            String gameOverMsg = logic.checkGameOver();
-            if (gameOverMsg != null) {
-                JOptionPane.showMessageDialog(this, gameOverMsg, "Koniec Gry", JOptionPane.ERROR_MESSAGE);
-                initMainMenu();
-            } else {
-                logic.nextDay();
-                updateStatsUI();
-                nextTurn();
-            }
-        });
-
-        resultFrame.add(resText, BorderLayout.CENTER);
-        resultFrame.add(nextBtn, BorderLayout.SOUTH);
-        eventPanel.add(resultFrame);
-        eventPanel.revalidate();
-        eventPanel.repaint();
+        resultText.setText(message);
+        showCard(RESULT_CARD);
     }
 
     public void updateStatsUI() {
@@ -200,25 +368,38 @@ public class GameWindow extends JFrame { // Generuje okna gry
         barComfort.setValue(p.comfort);
     }
 
-    public void updateBonusUI() {
-        bonusPanel.removeAll();
+    public void updateBonusUI() { //Etykiety przedmiotów są stałe - zmienia się tylko ich widoczność
         PlayerState p = logic.getPlayer();
-        if (p == null || p.inventory.isEmpty()) {
-            JLabel emptyLabel = new JLabel("Brak bonusów");
-            emptyLabel.setForeground(Color.LIGHT_GRAY);
-            emptyLabel.setFont(new Font("Arial", Font.ITALIC, 14));
-            bonusPanel.add(emptyLabel);
-        } else {
-            for (String item : p.inventory) {
-                JLabel itemLabel = new JLabel(getEmojiForItem(item));
-                itemLabel.setToolTipText(item);
-                itemLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 32));
-                itemLabel.setBorder(new EmptyBorder(5, 5, 5, 5));
-                bonusPanel.add(itemLabel);
-            }
+        long inventory = p == null ? 0L : p.inventory;
+        if (inventory == shownInventory) return;
+
+        emptyBonusLabel.setVisible(inventory == 0L);
+        for (long changed = inventory ^ shownInventory; changed != 0; changed &= changed - 1) {
+            int flag = Long.numberOfTrailingZeros(changed);
+            bonusLabel(flag).setVisible((inventory & FlagRegistry.bit(flag)) != 0);
+        }
+        shownInventory = inventory;
+    }
+
+    private JLabel bonusLabel(int flag) {
+        JLabel label = bonusLabels[flag];
+        if (label == null) {
+            label = new JLabel(IconCache.getDefault().flagIcon(flag));
+            label.setToolTipText(FlagRegistry.nameOf(flag));
+            label.setBorder(BONUS_BORDER);
+            label.setVisible(false);
+            bonusPanel.add(label, bonusIndex(flag));
+            bonusLabels[flag] = label;
         }
-        bonusPanel.revalidate();
-        bonusPanel.repaint();
+        return label;
+    }
+
+    private int bonusIndex(int flag) { //Kolejność jak w rejestrze flag, pusty opis zawsze pierwszy
+        int index = 1;
+        for (int i = 0; i < flag; i++) {
+            if (bonusLabels[i] != null) index++;
+        }
+        return index;
     }
 
     private void handleEndOfMonth() {
@@ -237,10 +418,17 @@ public class GameWindow extends JFrame { // Generuje okna gry
         } else if (response == 1) {
             initMainMenu();
         } else {
+            saveReplay();
             System.exit(0);
         }
     }
 
+    private void saveReplay() { //Przebieg sesji trafia do replays/ przy każdym jej opuszczeniu
+        if (logic == null) return;
+        Path file = logic.saveReplay();
+        if (file != null) System.out.println("Zapisano przebieg gry: " + file);
+    }
+
     private void initRightPanel() {
         rightInfoPanel = new JPanel();
         rightInfoPanel.setLayout(new BoxLayout(rightInfoPanel, BoxLayout.Y_AXIS));
@@ -253,12 +441,12 @@ public class GameWindow extends JFrame { // Generuje okna gry
         dayFrame.setBorder(new LineBorder(Color.BLACK, 3, true));
         dayFrame.setMaximumSize(new Dimension(200, 50));
         dayLabel = new JLabel("Dzień: 1");
-        dayLabel.setFont(new Font("Arial", Font.BOLD, 22));
+        dayLabel.setFont(DAY_FONT);
         dayLabel.setBorder(new EmptyBorder(5, 10, 5, 10));
         dayFrame.add(dayLabel);
 
         budgetLabel = new JLabel("0.00 PLN");
-        budgetLabel.setFont(new Font("Arial", Font.BOLD, 24));
+        budgetLabel.setFont(BUDGET_FONT);
         budgetLabel.setForeground(new Color(0, 100, 180));
         budgetLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
@@ -268,7 +456,7 @@ public class GameWindow extends JFrame { // Generuje okna gry
         rightInfoPanel.add(Box.createRigidArea(new Dimension(0, 30)));
 
         JLabel lblBonus = new JLabel("BONUSY");
-        lblBonus.setFont(new Font("Arial", Font.BOLD, 14));
+        lblBonus.setFont(SMALL_BOLD_FONT);
         lblBonus.setAlignmentX(Component.CENTER_ALIGNMENT);
         rightInfoPanel.add(lblBonus);
         rightInfoPanel.add(Box.createRigidArea(new Dimension(0, 5)));
@@ -277,16 +465,22 @@ public class GameWindow extends JFrame { // Generuje okna gry
         bonusPanel.setMaximumSize(new Dimension(280, 150));
         bonusPanel.setPreferredSize(new Dimension(280, 120));
         bonusPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+        emptyBonusLabel = new JLabel("Brak bonusów");
+        emptyBonusLabel.setForeground(Color.LIGHT_GRAY);
+        emptyBonusLabel.setFont(EMPTY_BONUS_FONT);
+        bonusPanel.add(emptyBonusLabel);
+        Arrays.fill(bonusLabels, null);
+        shownInventory = 0L;
         rightInfoPanel.add(bonusPanel);
         rightInfoPanel.add(Box.createVerticalGlue());
 
         JLabel lblHappy = new JLabel("Szczęście");
-        lblHappy.setFont(new Font("Arial", Font.BOLD, 16));
+        lblHappy.setFont(STAT_LABEL_FONT);
         lblHappy.setAlignmentX(Component.CENTER_ALIGNMENT);
         barHappiness = createStyledBar(new Color(213, 203, 12));
 
         JLabel lblComfort = new JLabel("Komfort");
-        lblComfort.setFont(new Font("Arial", Font.BOLD, 16));
+        lblComfort.setFont(STAT_LABEL_FONT);
         lblComfort.setAlignmentX(Component.CENTER_ALIGNMENT);
         barComfort = createStyledBar(new Color(38, 80, 225));
 
@@ -299,22 +493,13 @@ public class GameWindow extends JFrame { // Generuje okna gry
         rightInfoPanel.add(Box.createRigidArea(new Dimension(0, 5)));
         rightInfoPanel.add(barComfort);
         rightInfoPanel.add(Box.createRigidArea(new Dimension(0, 20)));
-    }
 
-    private String getEmojiForItem(String itemCode) {
-        if (itemCode == null) return "";
-        switch (itemCode) {
-            case "Bilet Miesięczny": return "🚌";
-            case "Ząb Nieleczony": return "🦷";
-            case "Ząb Nieleczony II": return "🤕";
-            case "Brak Zęba": return "😶";
-            case "Ryzyko Awarii": return "🔧";
-            case "Myszy": return "🐭";
-            case "Gołębie": return "🐦";
-            case "Brak Auta": return "🚶";
-            case "Choroba": return "🦠";
-            default: return "📦";
-        }
+        undoButton = createStyledButton("Cofnij dzień");
+        undoButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        undoButton.setEnabled(false);
+        undoButton.addActionListener(e -> undoDay());
+        rightInfoPanel.add(undoButton);
+        rightInfoPanel.add(Box.createRigidArea(new Dimension(0, 20)));
     }
 
     private void appendStatChange(StringBuilder sb, String name, int val) {
@@ -326,15 +511,26 @@ public class GameWindow extends JFrame { // Generuje okna gry
         bar.setValue(50); bar.setStringPainted(true);
         bar.setForeground(color);
         bar.setMaximumSize(new Dimension(250, 30));
-        bar.setFont(new Font("Arial", Font.BOLD, 14)); return bar;
+        bar.setFont(SMALL_BOLD_FONT); return bar;
     }
 
     private JButton createStyledButton(String text) {
         JButton btn = new JButton(text);
-        btn.setFont(new Font("Arial", Font.PLAIN, 22));
+        btn.setFont(BUTTON_FONT);
         btn.setFocusPainted(false); return btn;
     }
 
+    static class FixedSizePanel extends JPanel { // Rozmiar zależy tylko od rodzica - zmiana tekstu w środku nie przelicza całego okna
+        FixedSizePanel(LayoutManager layout) {
+            super(layout);
+        }
+
+        @Override
+        public boolean isValidateRoot() {
+            return true;
+        }
+    }
+
     static class RoundedPanel extends JPanel {
         private final  int cornerRadius;
         private final Color backgroundColor;
@@ -347,24 +543,9 @@ public class GameWindow extends JFrame { // Generuje okna gry
 
         @Override protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Dimension arcs = new Dimension(cornerRadius, cornerRadius);
-            int width = getWidth();
-            int height = getHeight();
-
-            Graphics2D graphics = (Graphics2D) g;
-
-            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            if (backgroundColor != null) {
-                graphics.setColor(backgroundColor);
-            }
-            else {
-                graphics.setColor(getBackground());
-            }
-
-            graphics.fillRoundRect(0, 0, width-1, height-1, arcs.width, arcs.height);
-            graphics.setColor(Color.LIGHT_GRAY);
-            graphics.setStroke(new BasicStroke(2));
-            graphics.drawRoundRect(0, 0, width-1, height-1, arcs.width, arcs.height);
+            Color fill = backgroundColor != null ? backgroundColor : getBackground();
+            IconCache.getDefault().paintRoundedRect(g, 0, 0, getWidth(), getHeight(), cornerRadius,
+                    fill, Color.LIGHT_GRAY, 2);
         }
     }
-}
\ No newline at end of file
+}
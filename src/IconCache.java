@@ -0,0 +1,192 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class IconCache { // Zrasteryzowane emoji i kształty - odświeżenie tylko kopiuje gotowy obraz
+
+    public static final Font EMOJI_FONT = new Font("Segoe UI Emoji", Font.PLAIN, 32);
+    static final int MAX_ENTRIES = 256;
+
+    private static final FontRenderContext MEASURE_CONTEXT = new FontRenderContext(null, true, true);
+
+    private static final int GLYPH = 0;
+    private static final int ROUNDED_RECT = 1;
+    private static final int CIRCLE = 2;
+
+    private record Key(int kind, String text, String fontName, int style, int size,
+                       int width, int height, int fill, int stroke, int scalePercent) {
+    }
+
+    private final Map<Key, BufferedImage> images = new LinkedHashMap<>(64, 0.75f, true) { // Kolejność dostępu = LRU
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final Icon[] flagIcons = new Icon[FlagRegistry.MAX_FLAGS];
+
+    private static class Holder {
+        static final IconCache INSTANCE = new IconCache();
+    }
+
+    public static IconCache getDefault() {
+        return Holder.INSTANCE;
+    }
+
+    public synchronized Icon flagIcon(int flag) { //Ikona przedmiotu z ekwipunku
+        Icon icon = flagIcons[flag];
+        if (icon == null) {
+            icon = glyphIcon(FlagRegistry.emojiOf(flag), EMOJI_FONT, Color.BLACK);
+            flagIcons[flag] = icon;
+        }
+        return icon;
+    }
+
+    public Icon glyphIcon(String glyph, Font font, Color color) { //Wymiary liczone raz, obraz tworzony przy pierwszym rysowaniu
+        Rectangle2D bounds = font.getStringBounds(glyph, MEASURE_CONTEXT);
+        LineMetrics metrics = font.getLineMetrics(glyph, MEASURE_CONTEXT);
+        int width = (int) Math.ceil(bounds.getWidth());
+        int height = (int) Math.ceil(metrics.getAscent() + metrics.getDescent());
+        return new GlyphIcon(glyph, font, color, width, height, metrics.getAscent());
+    }
+
+    public void paintRoundedRect(Graphics g, int x, int y, int width, int height, int radius,
+                                 Color fill, Color stroke, int strokeWidth) {
+        if (width <= 0 || height <= 0) return;
+        int scale = scalePercent(g);
+        Key key = new Key(ROUNDED_RECT, null, null, strokeWidth, radius, width, height,
+                fill.getRGB(), stroke.getRGB(), scale);
+        BufferedImage image;
+        synchronized (this) {
+            image = images.get(key);
+            if (image == null) {
+                image = renderRoundedRect(width, height, radius, fill, stroke, strokeWidth, scale);
+                images.put(key, image);
+            }
+        }
+        g.drawImage(image, x, y, width, height, null);
+    }
+
+    public void paintCircle(Graphics g, int x, int y, int diameter, Color fill) {
+        if (diameter <= 0) return;
+        int scale = scalePercent(g);
+        Key key = new Key(CIRCLE, null, null, 0, 0, diameter, diameter, fill.getRGB(), 0, scale);
+        BufferedImage image;
+        synchronized (this) {
+            image = images.get(key);
+            if (image == null) {
+                image = renderCircle(diameter, fill, scale);
+                images.put(key, image);
+            }
+        }
+        g.drawImage(image, x, y, diameter, diameter, null);
+    }
+
+    void paintGlyph(Graphics g, int x, int y, GlyphIcon icon) {
+        int scale = scalePercent(g);
+        Key key = new Key(GLYPH, icon.glyph, icon.font.getName(), icon.font.getStyle(), icon.font.getSize(),
+                icon.width, icon.height, icon.color.getRGB(), 0, scale);
+        BufferedImage image;
+        synchronized (this) {
+            image = images.get(key);
+            if (image == null) {
+                image = renderGlyph(icon, scale);
+                images.put(key, image);
+            }
+        }
+        g.drawImage(image, x, y, icon.width, icon.height, null);
+    }
+
+    public synchronized int size() {
+        return images.size();
+    }
+
+    private static int scalePercent(Graphics g) { //Obraz w rozdzielczości ekranu - bez rozmycia przy skalowaniu HiDPI
+        if (!(g instanceof Graphics2D g2)) return 100;
+        return (int) Math.round(g2.getTransform().getScaleX() * 100);
+    }
+
+    private static BufferedImage createImage(int width, int height, int scale) {
+        return new BufferedImage(Math.max(1, (int) Math.ceil(width * scale / 100.0)),
+                Math.max(1, (int) Math.ceil(height * scale / 100.0)), BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static Graphics2D prepare(BufferedImage image, int scale) {
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.scale(scale / 100.0, scale / 100.0);
+        return g;
+    }
+
+    private static BufferedImage renderGlyph(GlyphIcon icon, int scale) {
+        BufferedImage image = createImage(icon.width, icon.height, scale);
+        Graphics2D g = prepare(image, scale);
+        g.setFont(icon.font);
+        g.setColor(icon.color);
+        g.drawString(icon.glyph, 0, icon.ascent);
+        g.dispose();
+        return image;
+    }
+
+    private static BufferedImage renderRoundedRect(int width, int height, int radius, Color fill, Color stroke,
+                                                   int strokeWidth, int scale) {
+        BufferedImage image = createImage(width, height, scale);
+        Graphics2D g = prepare(image, scale);
+        g.setColor(fill);
+        g.fillRoundRect(0, 0, width - 1, height - 1, radius, radius);
+        g.setColor(stroke);
+        g.setStroke(new BasicStroke(strokeWidth));
+        g.drawRoundRect(0, 0, width - 1, height - 1, radius, radius);
+        g.dispose();
+        return image;
+    }
+
+    private static BufferedImage renderCircle(int diameter, Color fill, int scale) {
+        BufferedImage image = createImage(diameter, diameter, scale);
+        Graphics2D g = prepare(image, scale);
+        g.setColor(fill);
+        g.fillOval(0, 0, diameter, diameter);
+        g.dispose();
+        return image;
+    }
+
+    static final class GlyphIcon implements Icon { //Lekki uchwyt - sam obraz żyje w pamięci podręcznej
+        final String glyph;
+        final Font font;
+        final Color color;
+        final int width;
+        final int height;
+        final float ascent;
+
+        GlyphIcon(String glyph, Font font, Color color, int width, int height, float ascent) {
+            this.glyph = glyph;
+            this.font = font;
+            this.color = color;
+            this.width = width;
+            this.height = height;
+            this.ascent = ascent;
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            getDefault().paintGlyph(g, x, y, this);
+        }
+
+        @Override
+        public int getIconWidth() {
+            return width;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return height;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+import java.io.Serializable;
+import java.util.Arrays;
+
+public class IdSet implements Serializable { // Zbiór identyfikatorów (int) z haszowaniem otwartym, pamięta kolejność dodania
+
+    private static final int EMPTY = -1;
+
+    private int[] ids;      // Kolejność dodania
+    private int[] table;    // Pozycje w ids, adresowanie liniowe
+    private int size;
+
+    // Kopie dzielą tablice: zbiór tylko rośnie, więc kopia o rozmiarze n widzi dokładnie pierwsze n pozycji.
+    // Dopisywać w miejscu może tylko najdłuższa wersja - pozostałe przy pierwszym dopisaniu robią własne tablice.
+    private Shared shared;
+
+    private static final class Shared implements Serializable {
+        int longest; // Rozmiar najdłuższej wersji korzystającej z tych tablic
+    }
+
+    public IdSet() {
+        this(16);
+    }
+
+    public IdSet(int expectedSize) {
+        this.ids = new int[Math.max(4, expectedSize)];
+        this.table = new int[tableSizeFor(expectedSize)];
+        Arrays.fill(table, EMPTY);
+        this.shared = new Shared();
+    }
+
+    public IdSet(IdSet other) { //Kopia w O(1) - współdzieli tablice do chwili rozejścia się wersji
+        this.ids = other.ids;
+        this.table = other.table;
+        this.size = other.size;
+        this.shared = other.shared;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        return Math.max(16, capacity);
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public boolean contains(int id) {
+        int mask = table.length - 1;
+        for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+            int pos = table[slot];
+            if (pos == EMPTY) return false;
+            if (pos < size && ids[pos] == id) return true; // Dalsze pozycje należą do dłuższej wersji
+        }
+    }
+
+    public boolean add(int id) { //false, jeśli już był
+        if (contains(id)) return false;
+        claimTip();
+        int mask = table.length - 1;
+        int slot = hash(id) & mask;
+        while (table[slot] != EMPTY) slot = (slot + 1) & mask;
+        if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+        ids[size] = id;
+        table[slot] = size++;
+        if (size * 2 > table.length) rehash(table.length * 2);
+        return true;
+    }
+
+    private void claimTip() { //Dopisywanie w miejscu tylko w najdłuższej wersji, inaczej własna kopia prefiksu - O(n) raz po rozejściu
+        synchronized (shared) {
+            if (size == shared.longest) {
+                shared.longest = size + 1;
+                return;
+            }
+        }
+        ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+        shared = new Shared();
+        shared.longest = size + 1;
+        rehash(tableSizeFor(size + 1));
+    }
+
+    private void rehash(int newTableSize) {
+        table = new int[newTableSize];
+        Arrays.fill(table, EMPTY);
+        int mask = newTableSize - 1;
+        for (int pos = 0; pos < size; pos++) {
+            int slot = hash(ids[pos]) & mask;
+            while (table[slot] != EMPTY) slot = (slot + 1) & mask;
+            table[slot] = pos;
+        }
+    }
+
+    public int get(int index) { //Identyfikator w kolejności dodania
+        return ids[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() { //Nowe tablice - stare mogą należeć do innych wersji
+        ids = new int[ids.length];
+        table = new int[table.length];
+        Arrays.fill(table, EMPTY);
+        size = 0;
+        shared = new Shared();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof IdSet other) || other.size != size) return false;
+        for (int i = 0; i < size; i++) {
+            if (!other.contains(ids[i])) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < size; i++) h += hash(ids[i]);
+        return h;
+    }
+}
@@ -0,0 +1,156 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LoadClient { // Test obciążenia GameServer - wiele równoczesnych graczy, każdy na własnym wirtualnym wątku
+
+    private final int port;
+    private final StreamingHistogram latency = new StreamingHistogram(); // Czas odpowiedzi [ns]
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder gamesOver = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private final boolean sameJvm; // Serwer w tej samej JVM - przed pomiarem pamięci można odśmiecić
+
+    public LoadClient(int port) {
+        this(port, false);
+    }
+
+    public LoadClient(int port, boolean sameJvm) {
+        this.port = port;
+        this.sameJvm = sameJvm;
+    }
+
+    private static final class Connection implements AutoCloseable { //Jedno połączenie = jedna sesja na serwerze
+        final Socket socket;
+        final GameServer.LineReader in;
+        final OutputStream out;
+
+        Connection(int port) throws IOException {
+            this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            this.in = new GameServer.LineReader(socket.getInputStream());
+            this.out = socket.getOutputStream();
+        }
+
+        String send(String command) throws IOException {
+            out.write((command + "\n").getBytes(StandardCharsets.UTF_8));
+            String response = in.readLine();
+            if (response == null) throw new IOException("serwer zamknął połączenie");
+            return response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private String timed(Connection connection, String command) throws IOException {
+        long start = System.nanoTime();
+        String response = connection.send(command);
+        latency.record(System.nanoTime() - start);
+        if (response.startsWith("ERR")) errors.increment();
+        return response;
+    }
+
+    private void play(Connection connection, int maxTurns, SplittableRandom random) throws IOException { //Losowe wybory jak w Simulation
+        for (int turn = 0; turn < maxTurns; turn++) {
+            String event = timed(connection, "DRAW");
+            if (event.startsWith("MONTH_END")) {
+                timed(connection, "MONTH");
+                continue;
+            }
+            if (!event.startsWith("EVENT")) return;
+            String[] parts = event.split(" ", 5);
+            int choices = Integer.parseInt(parts[3]);
+            String result = choices == 0
+                    ? timed(connection, "REFLEX " + (random.nextDouble() < 0.8 ? 1 : 0))
+                    : timed(connection, "CHOOSE " + random.nextInt(choices));
+            turns.increment();
+            if (result.startsWith("GAME_OVER")) {
+                gamesOver.increment();
+                return;
+            }
+        }
+    }
+
+    public void run(int sessions, int maxTurns, long seed) throws InterruptedException { //Najpierw wszystkie sesje bezczynne, potem wszystkie grają naraz
+        CountDownLatch connected = new CountDownLatch(sessions);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(sessions);
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Thread> players = new ArrayList<>(sessions);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            SplittableRandom random = root.split();
+            players.add(Thread.ofVirtual().name("gracz-", 0).start(() -> {
+                boolean counted = false;
+                try (Connection connection = new Connection(port)) {
+                    timed(connection, "HELLO");
+                    connected.countDown();
+                    counted = true;
+                    go.await();
+                    play(connection, maxTurns, random);
+                    connection.send("BYE");
+                } catch (IOException | InterruptedException error) {
+                    errors.increment();
+                } finally {
+                    if (!counted) connected.countDown();
+                    finished.countDown();
+                }
+            }));
+        }
+        connected.await();
+        long connectNanos = System.nanoTime() - start;
+        System.out.printf("Połączono %,d sesji w %.2f s%n", sessions, connectNanos / 1e9);
+
+        if (sameJvm) System.gc(); // Serwer sam nie wymusza odśmiecania
+        try (Connection probe = new Connection(port)) { //Pamięć serwera przy samych bezczynnych sesjach
+            String[] stats = probe.send("STATS").split(" ");
+            int open = Integer.parseInt(stats[1]);
+            long usedMb = Long.parseLong(stats[2]);
+            System.out.printf("Serwer: %,d otwartych sesji, %,d MB zajętej pamięci (%.1f KB na sesję)%n",
+                    open, usedMb, open == 0 ? 0 : usedMb * 1024.0 / open);
+        } catch (IOException error) {
+            System.out.println("Brak statystyk serwera: " + error.getMessage());
+        }
+
+        latency.reset();
+        long playStart = System.nanoTime();
+        go.countDown();
+        finished.await();
+        long playNanos = System.nanoTime() - playStart;
+        for (Thread player : players) player.join();
+
+        StreamingHistogram.Snapshot snapshot = latency.snapshot();
+        System.out.printf("Tury: %,d w %.2f s (%,.0f tur/s), zakończone gry: %,d, błędy: %,d%n",
+                turns.sum(), playNanos / 1e9, turns.sum() / (playNanos / 1e9), gamesOver.sum(), errors.sum());
+        System.out.printf("Czas odpowiedzi: p50 %.0f µs, p99 %.0f µs, max %.1f ms%n",
+                snapshot.getP50() / 1e3, snapshot.getP99() / 1e3, snapshot.getMax() / 1e6);
+    }
+
+    public static void main(String[] args) throws Exception { //Użycie: LoadClient [sesje] [tury na sesję] [port] - bez portu uruchamia serwer w tej JVM
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int maxTurns = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        GameServer embedded = null;
+        int port;
+        if (args.length > 2) {
+            port = Integer.parseInt(args[2]);
+        } else {
+            embedded = new GameServer(0, false).start();
+            port = embedded.port();
+        }
+
+        new LoadClient(port, embedded != null).run(sessions, maxTurns, System.nanoTime());
+        if (embedded != null) embedded.close();
+    }
+}
@@ -1,8 +1,14 @@
 import javax.swing.*;
 
 void main() {
+    Startup.preload(); // Katalog, czcionki, klasy i JMX w tle - EDT od razu buduje menu
+    EdtWatchdog.install();
     SwingUtilities.invokeLater(() -> {
         GameWindow game = new GameWindow();
         game.setVisible(true);
+        SwingUtilities.invokeLater(() -> { //Po pierwszym rysowaniu menu
+            Startup.menuShown();
+            SwingUtilities.invokeLater(game::prepareGameScreen);
+        });
     });
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+import java.awt.*;
+
+public interface Minigame { // Minigra sterowana przez MinigameRuntime - wszystkie metody wołane z wątku pętli gry
+
+    void update(double seconds); //Jeden krok o stałej długości
+
+    void render(Graphics2D g, int width, int height);
+
+    void mousePressed(int x, int y, long pressedAt); //pressedAt - System.nanoTime() z chwili naciśnięcia
+
+    boolean isFinished();
+
+    default void frameShown(long shownAt) { //Klatka właśnie trafiła na ekran
+    }
+}
@@ -0,0 +1,199 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+public class MinigameRuntime { // Aktywne renderowanie minigier: własny wątek, stały krok aktualizacji i BufferStrategy
+
+    static final int UPDATES_PER_SECOND = 120;
+    static final long STEP_NANOS = TimeUnit.SECONDS.toNanos(1) / UPDATES_PER_SECOND;
+    static final int MAX_STEPS_PER_FRAME = 5; // Po dłuższym przestoju gra zwalnia, zamiast nadrabiać bez końca
+    static final boolean SHOW_OVERLAY = Boolean.getBoolean("mw.fps"); // Licznik klatek tylko z -Dmw.fps=true
+
+    private static final Font OVERLAY_FONT = new Font("Monospaced", Font.PLAIN, 12);
+    private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 150);
+
+    private record Click(int x, int y, long pressedAt) {
+    }
+
+    private record Session(Minigame game, Runnable onFinish) {
+    }
+
+    private final Canvas canvas = new Canvas();
+    private final AtomicReference<Session> session = new AtomicReference<>();
+    private final ConcurrentLinkedQueue<Click> clicks = new ConcurrentLinkedQueue<>();
+    private volatile boolean needsStrategy = true;
+    private Thread loop;
+
+    private long windowStart; // Statystyki klatek z ostatniej sekundy - tylko wątek pętli
+    private int windowFrames;
+    private long windowFrameNanos;
+    private long windowMaxFrameNanos;
+    private String overlayText = "";
+
+    private static class Holder {
+        static final MinigameRuntime INSTANCE = new MinigameRuntime();
+    }
+
+    public static MinigameRuntime getDefault() {
+        return Holder.INSTANCE;
+    }
+
+    public MinigameRuntime() {
+        canvas.setIgnoreRepaint(true);
+        canvas.setBackground(UIManager.getColor("Panel.background"));
+        canvas.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                long pressedAt = System.nanoTime();
+                if (SwingUtilities.isLeftMouseButton(e) && session.get() != null) {
+                    clicks.add(new Click(e.getX(), e.getY(), pressedAt));
+                }
+            }
+        });
+        canvas.addHierarchyListener(e -> { // Nowy rodzic = nowy natywny komponent i nowe bufory
+            if ((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0) needsStrategy = true;
+        });
+    }
+
+    public Canvas canvas() {
+        return canvas;
+    }
+
+    public void start(Minigame game, Runnable onFinish) { //onFinish wykonywany na EDT po zakończeniu minigry
+        clicks.clear();
+        session.set(new Session(game, onFinish));
+        if (loop == null) {
+            loop = new Thread(this::run, "minigame-loop");
+            loop.setDaemon(true);
+            loop.start();
+        } else {
+            LockSupport.unpark(loop);
+        }
+    }
+
+    public void stop() { //Pętla usypia do następnej minigry
+        session.set(null);
+        clicks.clear();
+    }
+
+    private void run() {
+        Session running = null;
+        long previous = 0;
+        long accumulator = 0;
+        long lastShown = 0;
+        while (true) {
+            Session current = session.get();
+            if (current == null) {
+                running = null;
+                LockSupport.park(this);
+                continue;
+            }
+            if (current != running) {
+                running = current;
+                previous = System.nanoTime();
+                accumulator = 0;
+                lastShown = 0;
+                resetStats(previous);
+            }
+            Minigame game = current.game();
+
+            long frameStart = System.nanoTime();
+            accumulator += frameStart - previous;
+            previous = frameStart;
+
+            for (Click click; (click = clicks.poll()) != null; ) game.mousePressed(click.x(), click.y(), click.pressedAt());
+            int steps = 0;
+            while (accumulator >= STEP_NANOS && steps < MAX_STEPS_PER_FRAME && !game.isFinished()) {
+                game.update(STEP_NANOS / 1e9);
+                accumulator -= STEP_NANOS;
+                steps++;
+            }
+            if (steps == MAX_STEPS_PER_FRAME) accumulator = Math.min(accumulator, STEP_NANOS);
+
+            if (game.isFinished()) {
+                if (session.compareAndSet(current, null)) SwingUtilities.invokeLater(current.onFinish());
+                continue;
+            }
+
+            long shownAt = render(game);
+            if (shownAt != 0) {
+                game.frameShown(shownAt);
+                if (lastShown != 0) recordFrame(shownAt, shownAt - lastShown);
+                lastShown = shownAt;
+            }
+
+            long wait = STEP_NANOS - (System.nanoTime() - frameStart);
+            if (wait > 0) LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    private long render(Minigame game) { //Zwraca chwilę pokazania klatki albo 0, gdy płótna nie widać
+        if (!canvas.isShowing() || canvas.getWidth() <= 0 || canvas.getHeight() <= 0) return 0;
+        try {
+            if (needsStrategy || canvas.getBufferStrategy() == null) {
+                needsStrategy = false;
+                canvas.createBufferStrategy(2);
+            }
+            BufferStrategy strategy = canvas.getBufferStrategy();
+            int width = canvas.getWidth(), height = canvas.getHeight();
+            do {
+                do {
+                    Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        g.setColor(canvas.getBackground());
+                        g.fillRect(0, 0, width, height);
+                        game.render(g, width, height);
+                        if (SHOW_OVERLAY) drawOverlay(g);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+            Toolkit.getDefaultToolkit().sync();
+            return System.nanoTime();
+        } catch (IllegalStateException e) { // Płótno zniknęło z okna w trakcie klatki
+            needsStrategy = true;
+            return 0;
+        }
+    }
+
+    private void resetStats(long now) {
+        windowStart = now;
+        windowFrames = 0;
+        windowFrameNanos = 0;
+        windowMaxFrameNanos = 0;
+        overlayText = "FPS: --";
+    }
+
+    private void recordFrame(long now, long frameNanos) {
+        windowFrames++;
+        windowFrameNanos += frameNanos;
+        windowMaxFrameNanos = Math.max(windowMaxFrameNanos, frameNanos);
+        long elapsed = now - windowStart;
+        if (elapsed >= TimeUnit.SECONDS.toNanos(1)) {
+            overlayText = String.format("FPS: %.0f  klatka: %.1f ms (max %.1f ms)",
+                    windowFrames * 1e9 / elapsed, windowFrameNanos / 1e6 / windowFrames, windowMaxFrameNanos / 1e6);
+            windowStart = now;
+            windowFrames = 0;
+            windowFrameNanos = 0;
+            windowMaxFrameNanos = 0;
+        }
+    }
+
+    private void drawOverlay(Graphics2D g) {
+        g.setFont(OVERLAY_FONT);
+        FontMetrics metrics = g.getFontMetrics();
+        g.setColor(OVERLAY_BACKGROUND);
+        g.fillRect(4, 4, metrics.stringWidth(overlayText) + 8, metrics.getHeight() + 4);
+        g.setColor(Color.WHITE);
+        g.drawString(overlayText, 8, 6 + metrics.getAscent());
+    }
+}
@@ -0,0 +1,54 @@
+import javax.swing.*;
+import java.awt.*;
+
+public class MouseCatchMinigame implements Minigame { // "Myszy" - złap wszystkie biegające myszy
+
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 18);
+    private static final String TITLE = "Znajdź (kliknij) wszystkie myszy!";
+    private static final int TITLE_HEIGHT = 40;
+
+    private final MouseField field;
+    private final Icon mouseIcon;
+    private final int iconOffsetX, iconOffsetY;
+
+    private int fieldX, fieldY; // Położenie pola z ostatniej klatki - do trafień
+
+    public MouseCatchMinigame(MouseField field, Icon mouseIcon) {
+        this.field = field;
+        this.mouseIcon = mouseIcon;
+        this.iconOffsetX = (field.spriteSize - mouseIcon.getIconWidth()) / 2;
+        this.iconOffsetY = (field.spriteSize - mouseIcon.getIconHeight()) / 2;
+    }
+
+    @Override
+    public void update(double seconds) {
+        field.step(seconds);
+    }
+
+    @Override
+    public void mousePressed(int x, int y, long pressedAt) {
+        int hit = field.hit(x - fieldX, y - fieldY);
+        if (hit >= 0) field.catchMouse(hit);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return field.remaining() == 0;
+    }
+
+    @Override
+    public void render(Graphics2D g, int width, int height) {
+        fieldX = Math.max(0, (width - field.width) / 2);
+        fieldY = Math.max(TITLE_HEIGHT, (height - field.height + TITLE_HEIGHT) / 2);
+
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(TITLE_FONT);
+        g.setColor(Color.BLACK);
+        g.drawString(TITLE, fieldX, fieldY - TITLE_HEIGHT / 2);
+
+        g.setColor(Color.WHITE);
+        g.fillRect(fieldX, fieldY, field.width, field.height);
+        field.forEachLive((index, x, y) ->
+                mouseIcon.paintIcon(null, g, fieldX + x + iconOffsetX, fieldY + y + iconOffsetY));
+    }
+}
@@ -0,0 +1,131 @@
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+public class MouseField { // Myszy w minigrze jako zwykłe dane + jednolita siatka do trafień
+
+    static final int CELL_SIZE = 64; // Bok komórki >= średnica myszy - trafienie sprawdza najwyżej 3x3 komórki
+
+    final int width, height;
+    final int spriteSize;
+    private final float radius;
+
+    private final float[] x, y;   // Lewy górny róg
+    private final float[] vx, vy; // Piksele na sekundę
+    private final boolean[] caught;
+    private final int count;
+    private int remaining;
+
+    private final int columns, rows;
+    private final int[] cellHead; // Pierwsza mysz w komórce, -1 = pusta
+    private final int[] next;     // Kolejna mysz w tej samej komórce
+
+    public MouseField(int width, int height, int spriteSize, int count, double speed, RandomGenerator random) {
+        if (spriteSize > CELL_SIZE) throw new IllegalArgumentException("mysz większa niż komórka siatki: " + spriteSize);
+        this.width = width;
+        this.height = height;
+        this.spriteSize = spriteSize;
+        this.radius = spriteSize / 2f;
+        this.count = count;
+        this.remaining = count;
+        this.x = new float[count];
+        this.y = new float[count];
+        this.vx = new float[count];
+        this.vy = new float[count];
+        this.caught = new boolean[count];
+        this.columns = Math.max(1, (width + CELL_SIZE - 1) / CELL_SIZE);
+        this.rows = Math.max(1, (height + CELL_SIZE - 1) / CELL_SIZE);
+        this.cellHead = new int[columns * rows];
+        this.next = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            x[i] = (float) random.nextDouble(0, Math.max(1, width - spriteSize));
+            y[i] = (float) random.nextDouble(0, Math.max(1, height - spriteSize));
+            double angle = random.nextDouble(0, 2 * Math.PI);
+            vx[i] = (float) (Math.cos(angle) * speed);
+            vy[i] = (float) (Math.sin(angle) * speed);
+        }
+        rebuildGrid();
+    }
+
+    public int remaining() {
+        return remaining;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isCaught(int i) {
+        return caught[i];
+    }
+
+    public int x(int i) {
+        return Math.round(x[i]);
+    }
+
+    public int y(int i) {
+        return Math.round(y[i]);
+    }
+
+    public void step(double seconds) { //Ruch z odbiciem od ścian
+        float dt = (float) seconds;
+        for (int i = 0; i < count; i++) {
+            if (caught[i] || (vx[i] == 0 && vy[i] == 0)) continue;
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+            if (x[i] < 0) { x[i] = -x[i]; vx[i] = -vx[i]; }
+            if (y[i] < 0) { y[i] = -y[i]; vy[i] = -vy[i]; }
+            float maxX = width - spriteSize, maxY = height - spriteSize;
+            if (x[i] > maxX) { x[i] = Math.max(0, 2 * maxX - x[i]); vx[i] = -vx[i]; }
+            if (y[i] > maxY) { y[i] = Math.max(0, 2 * maxY - y[i]); vy[i] = -vy[i]; }
+        }
+        rebuildGrid();
+    }
+
+    public int hit(int px, int py) { //Trafiona mysz (przy nakładaniu - o najwyższym numerze) albo -1
+        int column = clamp(px / CELL_SIZE, columns), row = clamp(py / CELL_SIZE, rows);
+        int best = -1;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); c++) {
+                for (int i = cellHead[r * columns + c]; i >= 0; i = next[i]) {
+                    float dx = px - (x[i] + radius), dy = py - (y[i] + radius);
+                    if (dx * dx + dy * dy <= radius * radius && i > best) best = i;
+                }
+            }
+        }
+        return best;
+    }
+
+    public void catchMouse(int i) {
+        if (caught[i]) return;
+        caught[i] = true;
+        remaining--;
+        rebuildGrid();
+    }
+
+    public void forEachLive(MouseVisitor visitor) { //Wszystkie niezłapane myszy
+        for (int i = 0; i < count; i++) {
+            if (!caught[i]) visitor.visit(i, x(i), y(i));
+        }
+    }
+
+    interface MouseVisitor {
+        void visit(int index, int x, int y);
+    }
+
+    private void rebuildGrid() { //Komórka według środka myszy
+        Arrays.fill(cellHead, -1);
+        for (int i = count - 1; i >= 0; i--) {
+            if (caught[i]) continue;
+            int c = clamp((int) ((x[i] + radius) / CELL_SIZE), columns);
+            int r = clamp((int) ((y[i] + radius) / CELL_SIZE), rows);
+            int cell = r * columns + c;
+            next[i] = cellHead[cell];
+            cellHead[cell] = i;
+        }
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+}
@@ -1,6 +1,4 @@
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
 
 public class PlayerState implements Serializable { //Przechowuje stan gracz
     public int day;
@@ -8,17 +6,43 @@ public class PlayerState implements Serializable { //Przechowuje stan gracz
     public int happiness;
     public int comfort;
 
-    public List<String> inventory;
-    public List<String> playedEventsHistory;
-    public String lastEventDescription;
+    public long inventory; // Bity flag z FlagRegistry
+    public IdSet playedEvents; // Identyfikatory rozegranych wydarzeń jednorazowych
+    public int lastEventId;
 
     public PlayerState() {
         this.day = 1;
         this.budget = 2000.0;
         this.happiness = 50;
         this.comfort = 50;
-        this.inventory = new ArrayList<>();
-        this.playedEventsHistory = new ArrayList<>();
-        this.lastEventDescription = "";
+        this.inventory = 0L;
+        this.playedEvents = new IdSet();
+        this.lastEventId = GameEvent.NO_EVENT;
+    }
+
+    private PlayerState(PlayerState other) {
+        this.day = other.day;
+        this.budget = other.budget;
+        this.happiness = other.happiness;
+        this.comfort = other.comfort;
+        this.inventory = other.inventory;
+        this.playedEvents = new IdSet(other.playedEvents);
+        this.lastEventId = other.lastEventId;
+    }
+
+    public PlayerState copy() { //Niezależna kopia w O(1) - historia współdzielona, dopóki któraś wersja jej nie zmieni
+        return new PlayerState(this);
+    }
+
+    public boolean hasFlag(int flag) {
+        return (inventory & FlagRegistry.bit(flag)) != 0;
+    }
+
+    public void addFlag(int flag) {
+        inventory |= FlagRegistry.bit(flag);
+    }
+
+    public void removeFlag(int flag) {
+        inventory &= ~FlagRegistry.bit(flag);
     }
 }
\ No newline at end of file
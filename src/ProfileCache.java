@@ -0,0 +1,96 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProfileCache { // Zdekodowane stany ostatnio używanych slotów - przełączanie profili bez czytania dysku
+
+    static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+    private static final int STATE_BYTES = 160;   // PlayerState z pustą historią
+    private static final int HISTORY_ENTRY_BYTES = 12; // Identyfikator + miejsce w tablicy haszującej
+
+    private final long maxBytes;
+    private long weight;
+    private long hits, misses;
+
+    private static final class Entry {
+        final PlayerState state;
+        long weight;
+
+        Entry(PlayerState state) {
+            this.state = state;
+            this.weight = weigh(state);
+        }
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // Kolejność dostępu = LRU
+
+    public ProfileCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    static long weigh(PlayerState state) { //Przybliżony rozmiar w pamięci - rośnie z historią
+        return STATE_BYTES + (long) state.playedEvents.size() * HISTORY_ENTRY_BYTES;
+    }
+
+    public synchronized PlayerState get(String slot) { //Kopia - wywołujący może ją zmieniać
+        Entry entry = entries.get(slot);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.state.copy();
+    }
+
+    public synchronized void put(String slot, PlayerState state) {
+        Entry old = entries.put(slot, new Entry(state.copy()));
+        if (old != null) weight -= old.weight;
+        weight += entries.get(slot).weight;
+        evict();
+    }
+
+    public synchronized void applyTurns(String slot, List<SaveJournal.Record> records) { //Zapis przez pamięć podręczną - jak odtworzenie dziennika
+        Entry entry = entries.get(slot);
+        if (entry == null) return;
+        for (SaveJournal.Record record : records) record.applyTo(entry.state);
+        weight -= entry.weight;
+        entry.weight = weigh(entry.state);
+        weight += entry.weight;
+        evict();
+    }
+
+    public synchronized void invalidate(String slot) {
+        Entry old = entries.remove(slot);
+        if (old != null) weight -= old.weight;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    private void evict() { //Najdawniej używane, aż zmieści się w limicie
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (weight > maxBytes && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+}
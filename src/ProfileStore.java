@@ -0,0 +1,23 @@
+import java.io.IOException;
+import java.util.List;
+
+public interface ProfileStore { // Gdzie leżą sloty zapisu - format danych należy do SaveSystem, miejsce i indeks do magazynu
+
+    boolean exists(String slot); //Z indeksu, bez dostępu do dysku
+
+    byte[] readSnapshot(String slot) throws IOException; //null, gdy slotu nie ma
+
+    void writeSnapshot(String slot, byte[] data, long generation) throws IOException; //Atomowa podmiana migawki i nowy, pusty dziennik
+
+    int appendJournal(String slot, List<SaveJournal.Record> records) throws IOException; //Zwraca liczbę zapisanych bajtów
+
+    int replayJournal(String slot, long generation, PlayerState state) throws IOException; //Zwraca liczbę odtworzonych wpisów
+
+    void delete(String slot) throws IOException;
+
+    List<SaveSystem.SlotInfo> list() throws IOException; //Nagłówki z indeksu, bez czytania slotów
+
+    void flush() throws IOException; //Utrwala indeks po serii zmian
+
+    void close() throws IOException; //Przy wyjściu lub zmianie magazynu
+}
@@ -0,0 +1,71 @@
+import java.awt.*;
+
+public class ReflexMinigame implements Minigame { // "Przejście na pasach" - kliknij, gdy zapali się zielone światło
+
+    static final int FRAME_WIDTH = 500;
+    static final int FRAME_HEIGHT = 300;
+    static final int LIGHT_DIAMETER = 150;
+
+    private final double greenAfter; // Sekundy czasu gry do zmiany światła
+    private double elapsed;
+    private boolean green;
+    private long greenShownAt; // 0 = zielone jeszcze nie trafiło na ekran
+
+    private boolean finished;
+    private boolean success;
+    private long reactionNanos;
+
+    private int lightX, lightY; // Położenie światła z ostatniej klatki - do trafień
+
+    public ReflexMinigame(double greenAfterSeconds) {
+        this.greenAfter = greenAfterSeconds;
+    }
+
+    @Override
+    public void update(double seconds) {
+        if (green) return;
+        elapsed += seconds;
+        if (elapsed >= greenAfter) green = true;
+    }
+
+    @Override
+    public void frameShown(long shownAt) {
+        if (green && greenShownAt == 0) greenShownAt = shownAt;
+    }
+
+    @Override
+    public void mousePressed(int x, int y, long pressedAt) {
+        if (finished) return;
+        int radius = LIGHT_DIAMETER / 2;
+        int dx = x - (lightX + radius), dy = y - (lightY + radius);
+        if (dx * dx + dy * dy > radius * radius) return;
+
+        finished = true;
+        success = greenShownAt != 0 && pressedAt >= greenShownAt; // Naciśnięcie sprzed pokazania zielonego to czerwone
+        if (success) reactionNanos = pressedAt - greenShownAt;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public long reactionNanos() {
+        return reactionNanos;
+    }
+
+    @Override
+    public void render(Graphics2D g, int width, int height) {
+        int frameX = (width - FRAME_WIDTH) / 2;
+        int frameY = (height - FRAME_HEIGHT) / 2;
+        IconCache.getDefault().paintRoundedRect(g, frameX, frameY, FRAME_WIDTH, FRAME_HEIGHT, 12,
+                Color.WHITE, Color.BLUE, 3);
+        lightX = frameX + (FRAME_WIDTH - LIGHT_DIAMETER) / 2;
+        lightY = frameY + (FRAME_HEIGHT - LIGHT_DIAMETER) / 2 + 20;
+        IconCache.getDefault().paintCircle(g, lightX, lightY, LIGHT_DIAMETER, green ? Color.GREEN : Color.RED);
+    }
+}
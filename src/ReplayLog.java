@@ -0,0 +1,139 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+public class ReplayLog { // Ziarno, stan początkowy i kolejne decyzje gracza - wystarczy do odtworzenia rozgrywki
+
+    static final int MAGIC = 0x4D575250; // "MWRP"
+    static final short VERSION = 1;
+
+    // Operacje (1 bajt); 0..MAX_CHOICE to indeks wybranej opcji
+    static final int MAX_CHOICE = 0x7F;
+    static final byte DRAW = (byte) 0x80;
+    static final byte NEXT_DAY = (byte) 0x81;
+    static final byte NEXT_MONTH = (byte) 0x82;
+    static final byte REFLEX_PASSED = (byte) 0x83;
+    static final byte REFLEX_FAILED = (byte) 0x84;
+    static final byte MANDATE = (byte) 0x85; // + 8 bajtów kwoty
+    static final byte UNDO = (byte) 0x86;
+
+    private long seed;
+    private PlayerState initial;
+    private byte[] ops = new byte[256];
+    private int length;
+    private boolean replayable;
+    private PlayerState recordedFinal; // Tylko w logach wczytanych z pliku
+
+    public void start(long seed, PlayerState initial) { //Nowa sesja - bufor operacji jest używany ponownie
+        this.seed = seed;
+        this.initial = initial.copy();
+        this.length = 0;
+        this.replayable = true;
+        this.recordedFinal = null;
+    }
+
+    void draw() { put(DRAW); }
+    void nextDay() { put(NEXT_DAY); }
+    void nextMonth() { put(NEXT_MONTH); }
+    void reflex(boolean passed) { put(passed ? REFLEX_PASSED : REFLEX_FAILED); }
+    void undo() { put(UNDO); }
+
+    void choice(int index) {
+        if (index < 0 || index > MAX_CHOICE) {
+            replayable = false; // Wybór spoza wylosowanego wydarzenia - nie da się go odtworzyć
+            return;
+        }
+        put((byte) index);
+    }
+
+    void mandate(double amount) {
+        put(MANDATE);
+        long bits = Double.doubleToLongBits(amount);
+        for (int shift = 56; shift >= 0; shift -= 8) put((byte) (bits >>> shift));
+    }
+
+    private void put(byte op) {
+        if (length == ops.length) ops = Arrays.copyOf(ops, length * 2);
+        ops[length++] = op;
+    }
+
+    public long seed() { return seed; }
+    public PlayerState initial() { return initial; }
+    public int length() { return length; }
+    public byte op(int position) { return ops[position]; }
+    public boolean isReplayable() { return replayable; }
+    public PlayerState recordedFinal() { return recordedFinal; }
+    public boolean isEmpty() { return length == 0; }
+
+    double mandateAt(int position) { //Kwota zapisana po operacji MANDATE na pozycji position
+        long bits = 0;
+        for (int i = 1; i <= 8; i++) bits = (bits << 8) | (ops[position + i] & 0xFF);
+        return Double.longBitsToDouble(bits);
+    }
+
+    static boolean sameState(PlayerState a, PlayerState b) { //Porównanie przez format zapisu - obejmuje historię i ekwipunek
+        try {
+            return Arrays.equals(SaveFormat.encode(a, 0, 0), SaveFormat.encode(b, 0, 0));
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    public void write(Path file, PlayerState finalState) throws IOException { //Stan końcowy zapisywany do porównania przy odtwarzaniu
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(seed);
+        writeState(out, initial);
+        writeState(out, finalState);
+        out.writeInt(length);
+        out.write(ops, 0, length);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, bytes.toByteArray());
+    }
+
+    public static ReplayLog read(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        if (data.length < Integer.BYTES * 2) throw new IOException("to nie jest zapis rozgrywki");
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - Integer.BYTES);
+        if ((int) crc.getValue() != ByteBuffer.wrap(data, data.length - Integer.BYTES, Integer.BYTES).getInt()) {
+            throw new IOException("uszkodzony zapis rozgrywki");
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, data.length - Integer.BYTES));
+        if (in.readInt() != MAGIC) throw new IOException("to nie jest zapis rozgrywki");
+        int version = in.readShort();
+        if (version > VERSION) throw new IOException("nieobsługiwana wersja zapisu rozgrywki: " + version);
+
+        ReplayLog log = new ReplayLog();
+        log.seed = in.readLong();
+        log.initial = readState(in);
+        log.recordedFinal = readState(in);
+        log.length = in.readInt();
+        log.ops = new byte[Math.max(1, log.length)];
+        in.readFully(log.ops, 0, log.length);
+        log.replayable = true;
+        return log;
+    }
+
+    private static void writeState(DataOutputStream out, PlayerState state) throws IOException {
+        byte[] encoded = SaveFormat.encode(state, 0, 0);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static PlayerState readState(DataInputStream in) throws IOException {
+        byte[] encoded = new byte[in.readInt()];
+        in.readFully(encoded);
+        return SaveFormat.decode(encoded, SaveFormat.readHeader(ByteBuffer.wrap(encoded)));
+    }
+}
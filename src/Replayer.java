@@ -0,0 +1,73 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class Replayer { // Odtwarza zapisane przebiegi gry bez interfejsu, z pełną prędkością procesora
+
+    public static PlayerState replay(ReplayLog log, GameLogic logic) { //Te same wywołania GameLogic co w oknie gry
+        logic.startReplay(log);
+        for (int position = 0; position < log.length(); position++) {
+            byte op = log.op(position);
+            switch (op) {
+                case ReplayLog.DRAW -> logic.drawNextEvent();
+                case ReplayLog.NEXT_DAY -> logic.nextDay();
+                case ReplayLog.NEXT_MONTH -> logic.nextMonth();
+                case ReplayLog.REFLEX_PASSED -> logic.resolveReflex(true);
+                case ReplayLog.REFLEX_FAILED -> logic.resolveReflex(false);
+                case ReplayLog.UNDO -> {
+                    if (logic.undoDay() == null) throw new IllegalStateException("nie ma czego cofnąć na pozycji " + position);
+                }
+                case ReplayLog.MANDATE -> {
+                    logic.applyMandate(log.mandateAt(position));
+                    position += Double.BYTES;
+                }
+                default -> {
+                    if (op < 0) throw new IllegalStateException("nieznana operacja " + (op & 0xFF) + " na pozycji " + position);
+                    GameEvent event = logic.getCurrentEvent();
+                    if (event == null || op >= event.choices.size()) {
+                        throw new IllegalStateException("wybór " + op + " nie pasuje do wydarzenia na pozycji " + position);
+                    }
+                    logic.applyChoice(event.choices.get(op));
+                }
+            }
+        }
+        return logic.getPlayer();
+    }
+
+    public static void main(String[] args) throws IOException { //Replayer [--repeat N] plik.mwr...
+        int repeat = 1;
+        int first = 0;
+        if (args.length >= 2 && args[0].equals("--repeat")) {
+            repeat = Integer.parseInt(args[1]);
+            first = 2;
+        }
+        if (args.length <= first) {
+            System.out.println("Użycie: Replayer [--repeat N] plik.mwr...");
+            return;
+        }
+
+        GameLogic logic = new GameLogic(new EventManager(), false).setRewindDepth(GameLogic.DEFAULT_REWIND_DAYS);
+        boolean allMatch = true;
+        for (int i = first; i < args.length; i++) {
+            Path file = Path.of(args[i]);
+            ReplayLog log = ReplayLog.read(file);
+
+            boolean matches;
+            try {
+                matches = ReplayLog.sameState(replay(log, logic), log.recordedFinal());
+            } catch (IllegalStateException error) {
+                System.out.println(file + ": ROZBIEŻNOŚĆ - " + error.getMessage());
+                allMatch = false;
+                continue;
+            }
+            allMatch &= matches;
+
+            long start = System.nanoTime();
+            for (int r = 0; r < repeat; r++) replay(log, logic);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%s: %s, %d operacji, %d odtworzeń w %.3f s (%.0f operacji/s)%n",
+                    file, matches ? "ZGODNY" : "ROZBIEŻNY stan końcowy", log.length(), repeat, seconds,
+                    (double) log.length() * repeat / seconds);
+        }
+        if (!allMatch) System.exit(1);
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+public class SaveFormat { // Binarny format zapisu: nagłówek stałej długości + treść zmiennej długości
+
+    public static final int MAGIC = 0x4D575331; // "MWS1"
+    public static final short VERSION = 2; // 2: historia jako identyfikatory wydarzeń (1: opisy)
+    public static final int HEADER_SIZE = 64;
+
+    public static class Header { //Wszystko, czego potrzebuje lista zapisów, bez czytania treści
+        public final int version;
+        public final int day;
+        public final double budget;
+        public final int happiness;
+        public final int comfort;
+        public final long inventory;
+        public final long timestamp;
+        public final long generation;
+        public final int bodyLength;
+        public final int bodyCrc;
+
+        Header(int version, int day, double budget, int happiness, int comfort, long inventory,
+               long timestamp, long generation, int bodyLength, int bodyCrc) {
+            this.version = version;
+            this.day = day;
+            this.budget = budget;
+            this.happiness = happiness;
+            this.comfort = comfort;
+            this.inventory = inventory;
+            this.timestamp = timestamp;
+            this.generation = generation;
+            this.bodyLength = bodyLength;
+            this.bodyCrc = bodyCrc;
+        }
+    }
+
+    public static byte[] encode(PlayerState state, long generation, long timestamp) throws IOException {
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+        DataOutputStream body = new DataOutputStream(bodyBytes);
+        IdSet history = state.playedEvents;
+        body.writeInt(history.size());
+        for (int i = 0; i < history.size(); i++) body.writeInt(history.get(i));
+        body.writeInt(state.lastEventId);
+        byte[] bodyArray = bodyBytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(bodyArray);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + bodyArray.length);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) HEADER_SIZE);
+        putStats(buffer, state.day, state.budget, state.happiness, state.comfort, state.inventory, timestamp);
+        buffer.putLong(generation);
+        buffer.putInt(bodyArray.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.position(HEADER_SIZE);
+        buffer.put(bodyArray);
+        return buffer.array();
+    }
+
+    private static void putStats(ByteBuffer buffer, int day, double budget, int happiness, int comfort,
+                                 long inventory, long timestamp) {
+        buffer.putInt(day);
+        buffer.putDouble(budget);
+        buffer.putInt(happiness);
+        buffer.putInt(comfort);
+        buffer.putLong(inventory);
+        buffer.putLong(timestamp);
+    }
+
+    public static Header readHeader(ByteBuffer buffer) throws IOException { //Czyta od bieżącej pozycji bufora
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("to nie jest plik zapisu");
+        }
+        int version = buffer.getShort();
+        int headerSize = buffer.getShort();
+        if (version > VERSION || headerSize < HEADER_SIZE) {
+            throw new IOException("nieobsługiwana wersja zapisu: " + version);
+        }
+        int day = buffer.getInt();
+        double budget = buffer.getDouble();
+        int happiness = buffer.getInt();
+        int comfort = buffer.getInt();
+        long inventory = buffer.getLong();
+        long timestamp = buffer.getLong();
+        long generation = buffer.getLong();
+        int bodyLength = buffer.getInt();
+        int bodyCrc = buffer.getInt();
+        return new Header(version, day, budget, happiness, comfort, inventory, timestamp, generation, bodyLength, bodyCrc);
+    }
+
+    static void addKnown(IdSet history, int id) { //Wydarzenia usunięte z katalogu są pomijane
+        if (id != GameEvent.NO_EVENT) history.add(id);
+    }
+
+    public static PlayerState decode(byte[] data, Header header) throws IOException {
+        if (data.length < HEADER_SIZE + header.bodyLength) {
+            throw new IOException("ucięty plik zapisu");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, HEADER_SIZE, header.bodyLength);
+        if ((int) crc.getValue() != header.bodyCrc) {
+            throw new IOException("uszkodzony plik zapisu");
+        }
+
+        PlayerState state = new PlayerState();
+        state.day = header.day;
+        state.budget = header.budget;
+        state.happiness = header.happiness;
+        state.comfort = header.comfort;
+        state.inventory = header.inventory;
+
+        DataInputStream body = new DataInputStream(new ByteArrayInputStream(data, HEADER_SIZE, header.bodyLength));
+        int historySize = body.readInt();
+        if (header.version >= 2) {
+            for (int i = 0; i < historySize; i++) state.playedEvents.add(body.readInt());
+            state.lastEventId = body.readInt();
+        } else {
+            EventCatalog catalog = EventCatalog.getDefault();
+            for (int i = 0; i < historySize; i++) addKnown(state.playedEvents, catalog.idOfDescription(body.readUTF()));
+            state.lastEventId = catalog.idOfDescription(body.readUTF());
+        }
+        return state;
+    }
+}
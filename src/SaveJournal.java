@@ -0,0 +1,158 @@
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class SaveJournal { // Dziennik zmian dopisywany po każdej turze, odtwarzany na migawce stanu
+
+    private static final int MAGIC = 0x4D574A32; // "MWJ2" - wydarzenia zapisane identyfikatorami
+    private static final int MAGIC_V1 = 0x4D574A31; // "MWJ1" - wydarzenia zapisane opisem (tylko odczyt)
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final int MAX_RECORD_SIZE = 64 * 1024;
+
+    public static class Record { //Stan po jednej turze - rozmiar nie zależy od długości rozgrywki
+        final int day;
+        final double budget;
+        final int happiness;
+        final int comfort;
+        final long inventory;
+        final int[] playedEvents; // Wydarzenia dopisane do historii od poprzedniego wpisu
+        final int lastEventId;
+
+        private Record(int day, double budget, int happiness, int comfort, long inventory,
+                       int[] playedEvents, int lastEventId) {
+            this.day = day;
+            this.budget = budget;
+            this.happiness = happiness;
+            this.comfort = comfort;
+            this.inventory = inventory;
+            this.playedEvents = playedEvents;
+            this.lastEventId = lastEventId;
+        }
+
+        public static Record capture(PlayerState state, int historyFrom) {
+            IdSet history = state.playedEvents;
+            int[] played = new int[Math.max(0, history.size() - historyFrom)];
+            for (int i = 0; i < played.length; i++) played[i] = history.get(historyFrom + i);
+            return new Record(state.day, state.budget, state.happiness, state.comfort, state.inventory,
+                    played, state.lastEventId);
+        }
+
+        void applyTo(PlayerState state) {
+            state.day = day;
+            state.budget = budget;
+            state.happiness = happiness;
+            state.comfort = comfort;
+            state.inventory = inventory;
+            for (int id : playedEvents) SaveFormat.addKnown(state.playedEvents, id);
+            state.lastEventId = lastEventId;
+        }
+
+        byte[] encode() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(day);
+            out.writeDouble(budget);
+            out.writeInt(happiness);
+            out.writeInt(comfort);
+            out.writeLong(inventory);
+            out.writeShort(playedEvents.length);
+            for (int id : playedEvents) out.writeInt(id);
+            out.writeInt(lastEventId);
+            return bytes.toByteArray();
+        }
+
+        static Record decode(byte[] payload, boolean legacy) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            int day = in.readInt();
+            double budget = in.readDouble();
+            int happiness = in.readInt();
+            int comfort = in.readInt();
+            long inventory = in.readLong();
+            int playedCount = in.readUnsignedShort();
+            int[] played = new int[playedCount];
+            for (int i = 0; i < playedCount; i++) played[i] = legacy ? legacyId(in.readUTF()) : in.readInt();
+            int last = legacy ? legacyId(in.readUTF()) : in.readInt();
+            return new Record(day, budget, happiness, comfort, inventory, played, last);
+        }
+
+        private static int legacyId(String description) {
+            return EventCatalog.getDefault().idOfDescription(description);
+        }
+    }
+
+    public static void reset(Path journal, long generation) throws IOException { //Nowy, pusty dziennik powiązany z migawką
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(journal)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(generation);
+        }
+    }
+
+    public static int append(Path journal, List<Record> records) throws IOException { //Dopisuje wpisy jednym zapisem, zwraca liczbę bajtów
+        if (!Files.exists(journal)) {
+            throw new FileNotFoundException("brak dziennika " + journal);
+        }
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(batch);
+        CRC32 crc = new CRC32();
+        for (Record record : records) {
+            byte[] payload = record.encode();
+            crc.reset();
+            crc.update(payload);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.writeInt((int) crc.getValue());
+        }
+        Files.write(journal, batch.toByteArray(), StandardOpenOption.APPEND);
+        return batch.size();
+    }
+
+    public static int replay(Path journal, long generation, PlayerState state) throws IOException { //Zwraca liczbę odtworzonych wpisów
+        if (!Files.exists(journal)) return 0;
+
+        int applied = 0;
+        long validLength;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journal)))) {
+            if (Files.size(journal) < HEADER_SIZE) return 0;
+            int magic = in.readInt();
+            if ((magic != MAGIC && magic != MAGIC_V1) || in.readLong() != generation) {
+                return 0; // Dziennik od innej migawki (np. przerwana kompaktacja) - migawka jest aktualna
+            }
+            boolean legacy = magic == MAGIC_V1;
+            validLength = HEADER_SIZE;
+            CRC32 crc = new CRC32();
+            byte[] payload;
+            while ((payload = readPayload(in, crc)) != null) {
+                Record.decode(payload, legacy).applyTo(state);
+                applied++;
+                validLength += Integer.BYTES * 2 + payload.length;
+            }
+        }
+
+        if (validLength < Files.size(journal)) { //Ucięty ostatni wpis - obcinamy, żeby kolejne dopiski były czytelne
+            System.out.println("Naprawiono uszkodzony koniec dziennika zapisu.");
+            try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        return applied;
+    }
+
+    private static byte[] readPayload(DataInputStream in, CRC32 crc) { //null przy końcu pliku lub uszkodzonym wpisie
+        try {
+            int length = in.readInt();
+            if (length < 0 || length > MAX_RECORD_SIZE) return null;
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            int expected = in.readInt();
+            crc.reset();
+            crc.update(payload);
+            return (int) crc.getValue() == expected ? payload : null;
+        } catch (IOException error) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SaveService { // Zapis gry w tle - łączy serie zapisów w jeden i nie blokuje interfejsu
+
+    private static final long COALESCE_DELAY_MS = 250;
+
+    private final ScheduledExecutorService writer;
+    private final Queue<PendingWrite> pending = new ConcurrentLinkedQueue<>(); // Migawki i wpisy dziennika, w kolejności
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private static class Holder { //Leniwa inicjalizacja - symulacje bez zapisu nie tworzą wątku
+        static final SaveService DEFAULT = start();
+    }
+
+    public static SaveService getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    private static class PendingWrite {
+        final String slot;
+        final PlayerState snapshot;       // Albo pełna migawka...
+        final SaveJournal.Record record;  // ...albo wpis dziennika
+
+        PendingWrite(String slot, PlayerState snapshot, SaveJournal.Record record) {
+            this.slot = slot;
+            this.snapshot = snapshot;
+            this.record = record;
+        }
+    }
+
+    private static class SlotBatch {
+        PlayerState snapshot;
+        final List<SaveJournal.Record> records = new ArrayList<>();
+    }
+
+    private SaveService() {
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "save-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static SaveService start() { //Nowy zapis w tle, który przy wyjściu z programu dopisuje resztę na dysk
+        SaveService service = new SaveService();
+        Runtime.getRuntime().addShutdownHook(new Thread(service::close, "save-flush"));
+        return service;
+    }
+
+    public void requestSnapshot(String slot, PlayerState state) { //Pełny zapis stanu (nowa gra, koniec miesiąca)
+        pending.add(new PendingWrite(slot, state.copy(), null));
+        schedule();
+    }
+
+    public void appendTurn(String slot, SaveJournal.Record record) { //Mały wpis do dziennika po turze
+        pending.add(new PendingWrite(slot, null, record));
+        schedule();
+    }
+
+    public void flush() { //Zapisuje od razu wszystko, co czeka (np. przed wczytaniem)
+        writePending();
+    }
+
+    public void close() { //Przy wyjściu - to, co czeka, i pełny indeks magazynu
+        writePending();
+        SaveSystem.closeStore();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            writer.schedule(this::writePending, COALESCE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void writePending() {
+        scheduled.set(false);
+
+        Map<String, SlotBatch> batches = new LinkedHashMap<>();
+        PendingWrite write;
+        while ((write = pending.poll()) != null) {
+            SlotBatch batch = batches.computeIfAbsent(write.slot, s -> new SlotBatch());
+            if (write.snapshot != null) { //Migawka zawiera wszystkie wcześniejsze wpisy tego slotu
+                batch.snapshot = write.snapshot;
+                batch.records.clear();
+            } else {
+                batch.records.add(write.record);
+            }
+        }
+
+        for (Map.Entry<String, SlotBatch> entry : batches.entrySet()) {
+            SlotBatch batch = entry.getValue();
+            if (batch.snapshot != null) SaveSystem.saveGame(entry.getKey(), batch.snapshot);
+            if (!batch.records.isEmpty()) SaveSystem.appendTurns(entry.getKey(), batch.records);
+        }
+        if (!batches.isEmpty()) SaveSystem.flushIndex(); // Indeks raz na serię, nie po każdym wpisie
+    }
+}
@@ -1,46 +1,159 @@
 import java.io.*;
-import java.util.Arrays;
-import java.util.stream.Collectors;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
-public class SaveSystem { // Odpowiada za zapis i odczyt
-    private static final String FILE_NAME = "savegame.txt";
+public class SaveSystem { // Odpowiada za zapis i odczyt (binarne sloty, miejsce przechowywania w ProfileStore)
+    private static final Path SAVE_DIR = Path.of("saves");
 
-    public static void saveGame(PlayerState state) { //Zapis
-        try (PrintWriter writer = new PrintWriter(new FileWriter(FILE_NAME))) {
-            writer.println(state.day);
-            writer.println(state.budget);
-            writer.println(state.happiness);
-            writer.println(state.comfort);
+    private static final String LEGACY_FILE_NAME = "savegame.txt"; // Stary format tekstowy - tylko import
+    private static final String LEGACY_JOURNAL_NAME = "savegame.journal";
+    public static final String LEGACY_SLOT = "savegame";
 
-            if (state.inventory.isEmpty()) writer.println("BRAK");
-            else writer.println(String.join(" ,", state.inventory));
+    private static final GameMetrics METRICS = GameMetrics.getDefault();
+    private static final ProfileCache CACHE = new ProfileCache(ProfileCache.DEFAULT_MAX_BYTES);
+    private static volatile ProfileStore store = new FilesystemProfileStore(SAVE_DIR);
 
-            if (state.playedEventsHistory.isEmpty()) {
-                writer.println("BRAK_HISTORII");
-            } else {
-                String history = state.playedEventsHistory.stream()
-                        .map(s -> s.replace("\n", " "))
-                        .collect(Collectors.joining(";"));
-                writer.println(history);
-            }
+    public static class SlotInfo { //Pozycja na liście zapisów
+        public final String name;
+        public final SaveFormat.Header header;
 
-            if (state.lastEventDescription == null || state.lastEventDescription.isEmpty()) {
-                writer.println("BRAK_OSTATNIEGO");
-            } else {
-                writer.println(state.lastEventDescription.replace("\n", " "));
-            }
+        SlotInfo(String name, SaveFormat.Header header) {
+            this.name = name;
+            this.header = header;
+        }
+    }
+
+    public static void setStore(ProfileStore newStore) { //Inny magazyn (np. w pamięci) - przed pierwszym zapisem lub odczytem
+        SaveService.getDefault().flush();
+        closeStore();
+        store = newStore;
+        CACHE.clear();
+    }
+
+    public static ProfileCache cache() {
+        return CACHE;
+    }
+
+    public static boolean isValidSlotName(String name) {
+        return name != null && name.matches("[\\p{L}\\p{N} _-]{1,40}") && !name.isBlank();
+    }
+
+    public static boolean slotExists(String slot) {
+        return store.exists(slot);
+    }
 
-            System.out.println("Zapisano grę.");
+    public static void deleteSlot(String slot) {
+        CACHE.invalidate(slot);
+        try {
+            store.delete(slot);
         } catch (IOException error) {
+            System.out.println("Błąd usuwania zapisu: " + error.getMessage());
+        }
+    }
+
+    public static void saveGame(String slot, PlayerState state) { //Pełna migawka: plik tymczasowy i podmiana, potem nowy dziennik
+        long start = System.nanoTime();
+        long generation = ThreadLocalRandom.current().nextLong();
+        try {
+            byte[] data = SaveFormat.encode(state, generation, System.currentTimeMillis());
+            store.writeSnapshot(slot, data, generation);
+            CACHE.put(slot, state);
+            METRICS.bytesWritten(data.length + SaveJournal.HEADER_SIZE);
+        } catch (IOException error) {
+            CACHE.invalidate(slot);
             System.out.println("Błąd zapisu: " + error.getMessage());
+        } finally {
+            METRICS.saveGame.record(System.nanoTime() - start);
         }
     }
 
-    public static PlayerState loadGame() { //Odczyt
-        File file = new File(FILE_NAME);
-        if (!file.exists()) return null;
+    public static void appendTurns(String slot, List<SaveJournal.Record> records) { //Dopisanie tur do dziennika - koszt stały
+        try {
+            METRICS.bytesWritten(store.appendJournal(slot, records));
+            CACHE.applyTurns(slot, records);
+        } catch (IOException error) {
+            CACHE.invalidate(slot);
+            System.out.println("Błąd zapisu dziennika: " + error.getMessage());
+        }
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_NAME))) {
+    public static void flushIndex() { //Po serii zapisów (SaveService)
+        try {
+            store.flush();
+        } catch (IOException error) {
+            System.out.println("Błąd zapisu indeksu: " + error.getMessage());
+        }
+    }
+
+    public static void closeStore() { //Przy wyjściu (SaveService)
+        try {
+            store.close();
+        } catch (IOException error) {
+            System.out.println("Błąd zapisu indeksu: " + error.getMessage());
+        }
+    }
+
+    public static PlayerState loadGame(String slot) { //Z pamięci podręcznej, a przy jej braku migawka + dziennik
+        long start = System.nanoTime();
+        try {
+            PlayerState cached = CACHE.get(slot);
+            if (cached != null) return cached;
+
+            byte[] data = store.readSnapshot(slot);
+            if (data == null) return null;
+            SaveFormat.Header header = SaveFormat.readHeader(ByteBuffer.wrap(data));
+            PlayerState state = SaveFormat.decode(data, header);
+            store.replayJournal(slot, header.generation, state);
+            CACHE.put(slot, state);
+            return state;
+        } catch (IOException error) {
+            System.out.println("Błąd odczytu: " + error.getMessage());
+            return null;
+        } finally {
+            METRICS.loadGame.record(System.nanoTime() - start);
+        }
+    }
+
+    public static List<SlotInfo> listSlots() { //Nagłówki z indeksu magazynu, bez otwierania plików slotów
+        importLegacySave();
+        List<SlotInfo> slots;
+        try {
+            slots = store.list();
+        } catch (IOException error) {
+            System.out.println("Błąd odczytu listy zapisów: " + error.getMessage());
+            return new ArrayList<>();
+        }
+        slots.sort(Comparator.comparingLong((SlotInfo s) -> s.header.timestamp).reversed());
+        return slots;
+    }
+
+    private static void importLegacySave() { //Przenosi stary savegame.txt do slotu binarnego
+        Path legacy = Path.of(LEGACY_FILE_NAME);
+        if (!Files.exists(legacy)) return;
+
+        PlayerState state = loadLegacyText(legacy);
+        if (state == null) return;
+
+        String slot = LEGACY_SLOT;
+        for (int i = 2; slotExists(slot); i++) slot = LEGACY_SLOT + "-" + i;
+        saveGame(slot, state);
+        try {
+            Files.move(legacy, legacy.resolveSibling(LEGACY_FILE_NAME + ".imported"), StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(Path.of(LEGACY_JOURNAL_NAME));
+            System.out.println("Zaimportowano stary zapis do slotu: " + slot);
+        } catch (IOException error) {
+            System.out.println("Błąd importu: " + error.getMessage());
+        }
+    }
+
+    static PlayerState loadLegacyText(Path file) { //Odczyt starego formatu tekstowego
+        try (BufferedReader reader = new BufferedReader(new FileReader(file.toFile()))) {
             PlayerState state = new PlayerState();
 
             String dayLine = reader.readLine();
@@ -50,26 +163,34 @@ public class SaveSystem { // Odpowiada za zapis i odczyt
             String inventoryLine = reader.readLine();
             String historyLine = reader.readLine();
             String lastEventLine = reader.readLine();
+            String generationLine = reader.readLine();
 
             if (dayLine != null) state.day = Integer.parseInt(dayLine);
             if (budgetLine != null) state.budget = Double.parseDouble(budgetLine);
             if (happyLine != null) state.happiness = Integer.parseInt(happyLine);
             if (comfortLine != null) state.comfort = Integer.parseInt(comfortLine);
 
-            state.inventory.clear();
+            state.inventory = 0L;
             if (inventoryLine != null && !inventoryLine.equals("BRAK") && !inventoryLine.isEmpty()) {
-                state.inventory.addAll(Arrays.asList(inventoryLine.split(" ,")));
+                state.inventory = inventoryFromString(inventoryLine);
             }
 
-            state.playedEventsHistory.clear();
+            EventCatalog catalog = EventCatalog.getDefault();
+            state.playedEvents.clear();
             if (historyLine != null && !historyLine.equals("BRAK_HISTORII") && !historyLine.isEmpty()) {
-                state.playedEventsHistory.addAll(Arrays.asList(historyLine.split(";")));
+                for (String description : historyLine.split(";")) {
+                    SaveFormat.addKnown(state.playedEvents, catalog.idOfDescription(description));
+                }
             }
 
             if (lastEventLine != null && !lastEventLine.equals("BRAK_OSTATNIEGO")) {
-                state.lastEventDescription = lastEventLine;
+                state.lastEventId = catalog.idOfDescription(lastEventLine);
             } else {
-                state.lastEventDescription = "";
+                state.lastEventId = GameEvent.NO_EVENT;
+            }
+
+            if (generationLine != null) { //Starsze zapisy nie mają dziennika
+                SaveJournal.replay(Path.of(LEGACY_JOURNAL_NAME), Long.parseLong(generationLine), state);
             }
 
             return state;
@@ -78,4 +199,16 @@ public class SaveSystem { // Odpowiada za zapis i odczyt
             return null;
         }
     }
-}
\ No newline at end of file
+
+    static long inventoryFromString(String line) {
+        long inventory = 0L;
+        for (String name : line.split(" ,")) {
+            int flag = FlagRegistry.findId(name);
+            if (flag == FlagRegistry.NONE) {
+                System.out.println("Pominięto nieznaną flagę: " + name);
+            }
+            inventory |= FlagRegistry.bit(flag);
+        }
+        return inventory;
+    }
+}
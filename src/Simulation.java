@@ -0,0 +1,219 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class Simulation { // Bezokienkowa symulacja Monte Carlo wielu pełnych rozgrywek
+
+    private static final int DAYS_IN_MONTH = 30;
+    private static final int GAMES_PER_TASK = 2_000;
+    private static final int TIMING_SAMPLE_RATE = 64; // Metryki czasu tury z co 64. wywołania
+
+    private static final int BUDGET_BUCKET = 100;      // Szerokość przedziału histogramu budżetu (PLN)
+    private static final int BUDGET_MIN = -10_000;
+    private static final int BUDGET_MAX = 100_000;
+
+    private final int games;
+    private final int months;
+    private final long seed;
+    private final double reflexSuccessRate;
+    private GameAnalytics analytics; // Opcjonalnie - jeden obiekt dla wszystkich wątków
+
+    public Simulation(int games, int months, long seed, double reflexSuccessRate) {
+        this.games = games;
+        this.months = months;
+        this.seed = seed;
+        this.reflexSuccessRate = reflexSuccessRate;
+    }
+
+    public Simulation setAnalytics(GameAnalytics analytics) {
+        this.analytics = analytics;
+        return this;
+    }
+
+    public Report run() { //Uruchamia symulację na wszystkich rdzeniach
+        return ForkJoinPool.commonPool().invoke(new SimulationTask(0, games, new SplittableRandom(seed)));
+    }
+
+    @SuppressWarnings("serial") // Zadanie nigdy nie jest serializowane
+    private class SimulationTask extends RecursiveTask<Report> { //Dzieli zakres gier, każdy liść ma własny generator
+        private final int from, to;
+        private final SplittableRandom random;
+
+        SimulationTask(int from, int to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Report compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                return simulateRange(to - from, random);
+            }
+            int mid = (from + to) >>> 1;
+            SimulationTask left = new SimulationTask(from, mid, random.split());
+            SimulationTask right = new SimulationTask(mid, to, random);
+            left.fork();
+            Report result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+
+    private Report simulateRange(int count, SplittableRandom random) { //Jedna logika gry na wątek, wielokrotnie używana
+        Report report = new Report(months);
+        GameLogic logic = new GameLogic(new EventManager(random), false).setTimingSampleRate(TIMING_SAMPLE_RATE)
+                .setAnalytics(analytics);
+        for (int i = 0; i < count; i++) {
+            playGame(logic, random, report);
+        }
+        return report;
+    }
+
+    private void playGame(GameLogic logic, SplittableRandom random, Report report) { //Odtwarza przebieg z GameWindow bez interfejsu
+        logic.startNewGame(SaveSystem.LEGACY_SLOT, random.nextLong());
+        PlayerState player = logic.getPlayer();
+        int totalDays = 0;
+        int month = 0;
+
+        while (true) {
+            if (player.day > DAYS_IN_MONTH) {
+                month++;
+                if (month >= months) break;
+                logic.nextMonth();
+                continue;
+            }
+
+            GameEvent event = logic.drawNextEvent();
+            if (event.minigameType == GameEvent.MinigameType.REFLEX_LIGHTS) {
+                logic.resolveReflex(random.nextDouble() < reflexSuccessRate);
+            } else {
+                List<GameEvent.Choice> choices = event.choices;
+                logic.applyChoice(choices.get(random.nextInt(choices.size())));
+            }
+            totalDays++;
+
+            if (logic.checkGameOver() != null) {
+                report.recordGameOver(totalDays, player.budget <= 0, player.budget);
+                return;
+            }
+            logic.nextDay();
+        }
+        if (analytics != null) analytics.survived(totalDays);
+        report.recordSurvived(player.budget);
+    }
+
+    public static class Report { //Wyniki symulacji, łączone z wielu wątków
+        long games;
+        long survived;
+        long bankruptcies;
+        final long[] bankruptcyDays;
+        final long[] finalBudgets;
+        double budgetSum;
+
+        Report(int months) {
+            this.bankruptcyDays = new long[months * DAYS_IN_MONTH + 1];
+            this.finalBudgets = new long[(BUDGET_MAX - BUDGET_MIN) / BUDGET_BUCKET + 1];
+        }
+
+        void recordSurvived(double budget) {
+            games++;
+            survived++;
+            recordBudget(budget);
+        }
+
+        void recordGameOver(int day, boolean bankrupt, double budget) {
+            games++;
+            if (bankrupt) {
+                bankruptcies++;
+                bankruptcyDays[Math.min(day, bankruptcyDays.length - 1)]++;
+            }
+            recordBudget(budget);
+        }
+
+        private void recordBudget(double budget) {
+            budgetSum += budget;
+            int bucket = (int) Math.floor((budget - BUDGET_MIN) / BUDGET_BUCKET);
+            finalBudgets[Math.max(0, Math.min(finalBudgets.length - 1, bucket))]++;
+        }
+
+        void merge(Report other) {
+            games += other.games;
+            survived += other.survived;
+            bankruptcies += other.bankruptcies;
+            budgetSum += other.budgetSum;
+            for (int i = 0; i < bankruptcyDays.length; i++) bankruptcyDays[i] += other.bankruptcyDays[i];
+            for (int i = 0; i < finalBudgets.length; i++) finalBudgets[i] += other.finalBudgets[i];
+        }
+
+        public double survivalRate() {
+            return games == 0 ? 0 : (double) survived / games;
+        }
+
+        public double bankruptcyRate() {
+            return games == 0 ? 0 : (double) bankruptcies / games;
+        }
+
+        public int bankruptcyDayPercentile(double p) {
+            return percentile(bankruptcyDays, bankruptcies, p);
+        }
+
+        public double finalBudgetPercentile(double p) {
+            return BUDGET_MIN + (double) percentile(finalBudgets, games, p) * BUDGET_BUCKET;
+        }
+
+        public double averageFinalBudget() {
+            return games == 0 ? 0 : budgetSum / games;
+        }
+
+        private static int percentile(long[] histogram, long total, double p) {
+            if (total == 0) return -1;
+            long target = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= Math.max(1, target)) return i;
+            }
+            return histogram.length - 1;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Rozegrane gry: ").append(games).append("\n");
+            sb.append(String.format("Przetrwanie: %.2f%%%n", survivalRate() * 100));
+            sb.append(String.format("Bankructwo: %.2f%%%n", bankruptcyRate() * 100));
+            if (bankruptcies > 0) {
+                sb.append(String.format("Dzień bankructwa (p10/p50/p90): %d / %d / %d%n",
+                        bankruptcyDayPercentile(0.1), bankruptcyDayPercentile(0.5), bankruptcyDayPercentile(0.9)));
+            }
+            sb.append(String.format("Budżet końcowy (średnia): %.2f PLN%n", averageFinalBudget()));
+            sb.append(String.format("Budżet końcowy (p10/p50/p90): %.0f / %.0f / %.0f PLN",
+                    finalBudgetPercentile(0.1), finalBudgetPercentile(0.5), finalBudgetPercentile(0.9)));
+            return sb.toString();
+        }
+    }
+
+    public static void main(String[] args) throws IOException { //Użycie: Simulation [gry] [miesiące] [ziarno] [skuteczność refleksu] [raport .csv/.json]
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int months = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        double reflex = args.length > 3 ? Double.parseDouble(args[3]) : 0.8;
+        Path reportFile = args.length > 4 ? Path.of(args[4]) : null;
+        GameAnalytics analytics = reportFile == null ? null : new GameAnalytics(EventCatalog.getDefault());
+
+        long start = System.nanoTime();
+        Report report = new Simulation(games, months, seed, reflex).setAnalytics(analytics).run();
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println(report);
+        System.out.printf("Czas: %.2f s (%,.0f gier/s)%n", elapsed / 1e9, games / (elapsed / 1e9));
+        if (analytics != null) {
+            analytics.write(reportFile);
+            System.out.printf("Statystyki wydarzeń: %s (zastępcze wydarzenia: %.2f%% dni)%n", reportFile, analytics.fallbackRate() * 100);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Solver { // Szuka najlepszej gry do końca miesiąca (MCTS z losowaniem wydarzeń) - do oceny balansu wydarzeń
+
+    private static final int DAYS_IN_MONTH = 30;
+    private static final int NEVER = Integer.MIN_VALUE / 2; // Wydarzenie jeszcze nie losowane
+    private static final double EXPLORATION = 0.7; // Stała UCT dla nagród z [0, 1]
+    private static final int NODE_BYTES = 256;     // Przybliżony koszt węzła z wpisem w tablicy (do limitu pamięci)
+
+    private final EventCatalog catalog;
+    private final double reflexSuccessRate;
+    private final int maxNodes;
+    private final int words; // Długość maski dostępnych wydarzeń
+    private final int tracked; // Wydarzenia z dniem ostatniego losowania - tylko gdy katalog ma cooldowny lub progi
+
+    private final ConcurrentHashMap<Long, Node> table = new ConcurrentHashMap<>(); // Tablica transpozycji: skrót stanu -> węzeł decyzji
+    private final AtomicInteger nodeCount = new AtomicInteger();
+
+    public Solver(double reflexSuccessRate) {
+        this(EventCatalog.getDefault(), reflexSuccessRate, Runtime.getRuntime().maxMemory() / 4);
+    }
+
+    public Solver(EventCatalog catalog, double reflexSuccessRate, long memoryBytes) { //memoryBytes = górna granica na tablicę transpozycji
+        this.catalog = catalog;
+        this.reflexSuccessRate = reflexSuccessRate;
+        this.maxNodes = (int) Math.min(Integer.MAX_VALUE, Math.max(1, memoryBytes / NODE_BYTES));
+        this.words = (catalog.size() + 63) >>> 6;
+        this.tracked = catalog.isConditional() ? catalog.size() : 0;
+    }
+
+    public static final class State { //Zwarty stan rozgrywki - bez historii, pula jako maska bitowa indeksów katalogu
+        int day;
+        double budget;
+        int happiness;
+        int comfort;
+        long inventory;
+        int lastIndex; // Indeks ostatniego wydarzenia w katalogu, -1 = brak (lub wydarzenie zastępcze)
+        final long[] available;
+        final int[] drawnAt; // Dzień ostatniego wylosowania (cooldowny), pusta tablica dla katalogu bez warunków
+
+        State(int words, int tracked) {
+            this.available = new long[words];
+            this.drawnAt = new int[tracked];
+            Arrays.fill(drawnAt, NEVER);
+        }
+
+        void copyFrom(State other) {
+            day = other.day;
+            budget = other.budget;
+            happiness = other.happiness;
+            comfort = other.comfort;
+            inventory = other.inventory;
+            lastIndex = other.lastIndex;
+            System.arraycopy(other.available, 0, available, 0, available.length);
+            System.arraycopy(other.drawnAt, 0, drawnAt, 0, drawnAt.length);
+        }
+
+        boolean isAvailable(int index) {
+            return (available[index >>> 6] & (1L << index)) != 0;
+        }
+
+        void remove(int index) {
+            available[index >>> 6] &= ~(1L << index);
+        }
+
+        boolean isPoolEmpty() {
+            for (long word : available) if (word != 0) return false;
+            return true;
+        }
+
+        long hash(int eventIndex) { //Skrót wszystkiego, od czego zależy dalsza gra
+            long h = mix(day * 0x9E3779B97F4A7C15L ^ eventIndex);
+            h = mix(h ^ Double.doubleToLongBits(budget));
+            h = mix(h ^ ((long) happiness << 32 | comfort & 0xFFFFFFFFL));
+            h = mix(h ^ inventory);
+            h = mix(h ^ lastIndex);
+            for (long word : available) h = mix(h ^ word);
+            for (int drawn : drawnAt) h = mix(h ^ drawn);
+            return h;
+        }
+
+        private static long mix(long z) { //Finalizator SplitMix64
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+
+    public State stateOf(PlayerState player, IdSet removedEvents) { //Stan gracza z pulą pomniejszoną o rozegrane wydarzenia
+        State state = new State(words, tracked);
+        state.day = player.day;
+        state.budget = player.budget;
+        state.happiness = player.happiness;
+        state.comfort = player.comfort;
+        state.inventory = player.inventory;
+        state.lastIndex = catalog.indexOfId(player.lastEventId);
+        for (int i = 0; i < catalog.size(); i++) state.available[i >>> 6] |= 1L << i;
+        if (removedEvents != null) {
+            for (int i = 0; i < removedEvents.size(); i++) {
+                int index = catalog.indexOfId(removedEvents.get(i));
+                if (index >= 0) state.remove(index);
+            }
+        }
+        return state;
+    }
+
+    private static final class Node { //Węzeł decyzji (stan + wylosowane wydarzenie); wirtualna strata = wizyta przed wynikiem
+        final long[] visits;
+        final double[] survival;
+        final double[] budget;
+        long total;
+
+        Node(int choices) {
+            this.visits = new long[choices];
+            this.survival = new double[choices];
+            this.budget = new double[choices];
+        }
+
+        synchronized int select() { //UCT, najpierw nieodwiedzone wybory
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            double logTotal = Math.log(total + 1);
+            for (int a = 0; a < visits.length; a++) {
+                if (visits[a] == 0) {
+                    best = a;
+                    break;
+                }
+                double score = survival[a] / visits[a] + EXPLORATION * Math.sqrt(logTotal / visits[a]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = a;
+                }
+            }
+            visits[best]++;
+            total++;
+            return best;
+        }
+
+        synchronized void update(int choice, double survived, double finalBudget) {
+            survival[choice] += survived;
+            budget[choice] += finalBudget;
+        }
+    }
+
+    private static final class Outcome { //Wynik jednej symulacji - wspólny obiekt na wątek
+        double survived;
+        double budget;
+    }
+
+    public record ChoiceValue(String label, long visits, double survival, double budget) { //Wartość oczekiwana jednego wyboru
+    }
+
+    public record Analysis(GameEvent event, List<ChoiceValue> choices, long iterations, int nodes, long nanos) {
+
+        public int best() {
+            int best = 0;
+            for (int i = 1; i < choices.size(); i++) {
+                if (choices.get(i).survival() > choices.get(best).survival()) best = i;
+            }
+            return best;
+        }
+    }
+
+    public record Estimate(double survival, double budget, long iterations, int nodes, long nanos) { //Wartość stanu przed losowaniem
+    }
+
+    public Analysis analyze(State state, int eventIndex, int iterations, long seed) { //Wartość każdego wyboru po wylosowaniu wydarzenia
+        GameEvent event = catalog.event(eventIndex);
+        if (event.choices.isEmpty()) throw new IllegalArgumentException("wydarzenie bez wyborów: " + event.id);
+        long start = System.nanoTime();
+        runParallel(iterations, seed, (scratch, random, outcome) -> {
+            scratch.copyFrom(state);
+            afterDraw(scratch, eventIndex, random, outcome, true);
+        });
+
+        State decision = new State(words, tracked);
+        decision.copyFrom(state);
+        decision.lastIndex = eventIndex;
+        if (!event.isRepeatable) decision.remove(eventIndex);
+        if (tracked > 0) decision.drawnAt[eventIndex] = decision.day;
+        Node root = table.get(decision.hash(eventIndex));
+        List<ChoiceValue> values = new ArrayList<>(event.choices.size());
+        for (int a = 0; a < event.choices.size(); a++) {
+            long n = root == null ? 0 : root.visits[a];
+            values.add(new ChoiceValue(event.choices.get(a).label, n,
+                    n == 0 ? 0 : root.survival[a] / n, n == 0 ? 0 : root.budget[a] / n));
+        }
+        return new Analysis(event, values, iterations, nodeCount.get(), System.nanoTime() - start);
+    }
+
+    public Estimate estimate(State state, int iterations, long seed) { //Szansa przetrwania miesiąca przy najlepszej grze (od dołu - UCT też eksploruje)
+        long start = System.nanoTime();
+        double[] sums = runParallel(iterations, seed, (scratch, random, outcome) -> {
+            scratch.copyFrom(state);
+            search(scratch, random, outcome, true);
+        });
+        return new Estimate(sums[0] / iterations, sums[1] / iterations, iterations, nodeCount.get(), System.nanoTime() - start);
+    }
+
+    public void clear() {
+        table.clear();
+        nodeCount.set(0);
+    }
+
+    public int nodes() {
+        return nodeCount.get();
+    }
+
+    private interface Iteration {
+        void run(State scratch, SplittableRandom random, Outcome outcome);
+    }
+
+    private double[] runParallel(int iterations, long seed, Iteration iteration) { //Wspólne drzewo, po jednym wątku na rdzeń
+        int workers = Math.max(1, Math.min(iterations, Runtime.getRuntime().availableProcessors()));
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Callable<double[]>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            SplittableRandom random = root.split();
+            int share = iterations / workers + (w < iterations % workers ? 1 : 0);
+            tasks.add(() -> {
+                State scratch = new State(words, tracked);
+                Outcome outcome = new Outcome();
+                double[] sums = new double[2];
+                for (int i = 0; i < share; i++) {
+                    iteration.run(scratch, random, outcome);
+                    sums[0] += outcome.survived;
+                    sums[1] += outcome.budget;
+                }
+                return sums;
+            });
+        }
+        double[] total = new double[2];
+        for (var future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+            double[] sums = future.resultNow();
+            total[0] += sums[0];
+            total[1] += sums[1];
+        }
+        return total;
+    }
+
+    private void search(State s, SplittableRandom random, Outcome outcome, boolean expand) { //Od początku dnia do końca miesiąca albo przegranej
+        if (s.day > DAYS_IN_MONTH) {
+            outcome.survived = 1;
+            outcome.budget = s.budget;
+            return;
+        }
+        int picked = draw(s, random);
+        if (picked < 0) { //Wydarzenie zastępcze - jedyny wybór
+            apply(s, (picked == -1 ? EventManager.QUIET_DAY : EventManager.DAY_OFF).choices.get(0));
+            s.lastIndex = -1;
+            endOfDay(s, random, outcome, expand);
+            return;
+        }
+        afterDraw(s, picked, random, outcome, expand);
+    }
+
+    private void afterDraw(State s, int picked, SplittableRandom random, Outcome outcome, boolean expand) { //Jak GameLogic.drawNextEvent i dalej
+        GameEvent event = catalog.event(picked);
+        s.lastIndex = picked;
+        if (!event.isRepeatable) s.remove(picked);
+        if (tracked > 0) s.drawnAt[picked] = s.day;
+        long key = s.hash(picked); // Stan w chwili decyzji - różne drogi do niego dzielą węzeł
+
+        List<GameEvent.Choice> choices = event.choices;
+        if (event.minigameType == GameEvent.MinigameType.REFLEX_LIGHTS || choices.isEmpty()) {
+            if (event.minigameType == GameEvent.MinigameType.REFLEX_LIGHTS && random.nextDouble() >= reflexSuccessRate) {
+                s.budget -= GameLogic.REFLEX_MANDATE;
+            }
+            endOfDay(s, random, outcome, expand);
+            return;
+        }
+
+        Node node = expand ? table.get(key) : null;
+        boolean created = false;
+        if (expand && node == null && nodeCount.get() < maxNodes) {
+            Node fresh = new Node(choices.size());
+            node = table.putIfAbsent(key, fresh);
+            if (node == null) {
+                node = fresh;
+                created = true;
+                nodeCount.incrementAndGet();
+            }
+        }
+        if (node == null) { //Poza drzewem - losowa gra jak w Simulation
+            apply(s, choices.get(random.nextInt(choices.size())));
+            endOfDay(s, random, outcome, false);
+            return;
+        }
+
+        int choice = node.select();
+        apply(s, choices.get(choice));
+        endOfDay(s, random, outcome, !created); // Jeden nowy węzeł na iterację
+        node.update(choice, outcome.survived, outcome.budget);
+    }
+
+    private void endOfDay(State s, SplittableRandom random, Outcome outcome, boolean expand) { //GameLogic.checkGameOver + nextDay
+        if (s.budget <= 0 || s.happiness <= 0 || s.comfort <= 0) {
+            outcome.survived = 0;
+            outcome.budget = 0;
+            return;
+        }
+        s.day++;
+        search(s, random, outcome, expand);
+    }
+
+    private int draw(State s, SplittableRandom random) { //Rozkład jak w EventIndex.draw: -1 = pusta pula, -2 = brak kandydata
+        if (s.isPoolEmpty()) return -1;
+        int key = catalog.keyFor(s.inventory);
+        int bands = GameEvent.StatBand.maskOf(s.budget, s.happiness, s.comfort);
+        double total = 0;
+        int candidates = 0;
+        boolean excludedCandidate = false;
+        for (int i = 0; i < catalog.size(); i++) {
+            if (!s.isAvailable(i) || !catalog.isEligible(i, key) || !admits(s, i)) continue;
+            candidates++;
+            if (i == s.lastIndex) {
+                excludedCandidate = true;
+                continue;
+            }
+            total += catalog.weight(i, bands);
+        }
+        if (candidates == 0 || (excludedCandidate && candidates == 1) || total <= 0) return -2;
+
+        double r = random.nextDouble() * total; // Pominięcie ostatniego wydarzenia nie zmienia proporcji pozostałych
+        int last = -2;
+        for (int i = 0; i < catalog.size(); i++) {
+            if (i == s.lastIndex || !s.isAvailable(i) || !catalog.isEligible(i, key) || !admits(s, i)) continue;
+            double w = catalog.weight(i, bands);
+            if (w <= 0) continue;
+            last = i;
+            r -= w;
+            if (r < 0) return i;
+        }
+        return last;
+    }
+
+    private boolean admits(State s, int index) { //Jak EventIndex.admits - dzień miesiąca zamiast licznika tur
+        if (tracked == 0) return true;
+        int cooldown = catalog.cooldown(index);
+        if (cooldown > 0 && s.day - s.drawnAt[index] <= cooldown) return false;
+        return catalog.meetsStats(index, s.inventory, s.budget, s.happiness, s.comfort, s.day);
+    }
+
+    private static void apply(State s, GameEvent.Choice choice) { //Jak GameLogic.applyChoice
+        s.budget -= choice.cost;
+        s.happiness = Math.max(0, Math.min(100, s.happiness + choice.happinessEffect));
+        s.comfort = Math.max(0, Math.min(100, s.comfort + choice.comfortEffect));
+        s.inventory &= ~FlagRegistry.bit(choice.flagToRemove);
+        s.inventory |= FlagRegistry.bit(choice.flagToAdd);
+    }
+
+    public static void main(String[] args) { //Użycie: Solver [iteracje na wydarzenie] [skuteczność refleksu] [ziarno]
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        double reflex = args.length > 1 ? Double.parseDouble(args[1]) : 0.8;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        Solver solver = new Solver(reflex);
+        EventCatalog catalog = solver.catalog;
+        PlayerState fresh = new PlayerState();
+
+        Estimate month = solver.estimate(solver.stateOf(fresh, null), iterations * 5, seed);
+        System.out.printf("Pierwszy miesiąc przy najlepszej grze: przetrwanie %.1f%%, budżet końcowy %.0f PLN (%,d iteracji, %.1f s)%n",
+                month.survival() * 100, month.budget(), month.iterations(), month.nanos() / 1e9);
+
+        for (int i = 0; i < catalog.size(); i++) { //Każde wydarzenie jako pierwsze w miesiącu - wybory porównywane w tym samym stanie
+            GameEvent event = catalog.event(i);
+            if (event.choices.size() < 2) continue;
+            solver.clear();
+            PlayerState player = fresh.copy();
+            player.addFlag(event.requiredFlag);
+            Analysis analysis = solver.analyze(solver.stateOf(player, null), i, iterations, seed + i);
+
+            System.out.println();
+            System.out.println("[" + event.id + "] " + event.description.replace('\n', ' '));
+            int best = analysis.best();
+            for (int a = 0; a < analysis.choices().size(); a++) {
+                ChoiceValue value = analysis.choices().get(a);
+                double regret = analysis.choices().get(best).survival() - value.survival();
+                System.out.printf("  %s %-40s przetrwanie %5.1f%%  budżet %7.0f PLN  (%,d wizyt%s)%n",
+                        a == best ? "*" : " ", value.label(), value.survival() * 100, value.budget(), value.visits(),
+                        regret > 0.05 ? String.format(", strata %.1f pp", regret * 100) : "");
+            }
+        }
+        System.out.printf("%nWęzły w tablicy transpozycji (ostatnia analiza): %,d z %,d%n", solver.nodes(), solver.maxNodes);
+    }
+}
@@ -0,0 +1,113 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+public final class Startup { // Start w etapach: menu od razu, katalog, czcionki i ekran gry rozgrzewane w tle
+
+    private static final long LAUNCHED = System.nanoTime(); // Wejście do main (klasa ładowana jako pierwsza)
+    private static final String SAMPLE_TEXT = "Dzień: 30 -1234.56 PLN ĄĆĘŁŃÓŚŹŻąćęłńóśźż Szczęście Komfort";
+
+    private static final String[] PRELOADED_CLASSES = { // Klasy ekranu gry - tylko wczytanie, bez inicjalizacji (to robi EDT)
+            "MinigameManager", "MinigameRuntime", "ReflexMinigame", "MouseCatchMinigame", "MouseField",
+            "GameWindow$FixedSizePanel", "GameWindow$RoundedPanel", "ReplayLog", "SaveJournal", "SaveService",
+            "javax.swing.JProgressBar", "javax.swing.plaf.basic.BasicProgressBarUI", "javax.swing.JTextArea",
+            "javax.swing.plaf.basic.BasicTextAreaUI", "javax.swing.BoxLayout", "java.awt.CardLayout",
+            "javax.swing.border.CompoundBorder", "javax.swing.border.LineBorder", "java.awt.image.BufferStrategy"
+    };
+
+    private static volatile long menuShownAt;
+    private static volatile long gameRequestedAt;
+    private static volatile boolean firstEventLogged;
+
+    private Startup() {
+    }
+
+    public static void preload() { //Wątki tła o niskim priorytecie - nie konkurują z EDT przy pierwszym rysowaniu
+        background("wczytanie-katalogu", () -> {
+            EventCatalog.getDefault();
+            SaveSystem.slotExists(SaveSystem.LEGACY_SLOT); // Otwiera indeks zapisów
+        });
+        background("wczytanie-czcionek", Startup::warmGlyphs);
+        background("wczytanie-klas", Startup::loadClasses);
+        background("rejestracja-metryk", GameMetrics::register);
+    }
+
+    private static void background(String name, Runnable task) {
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+                System.out.println("Start: " + name + " " + millis(System.nanoTime() - start) + " ms");
+            } catch (RuntimeException | LinkageError error) { //Rozgrzewka jest tylko optymalizacją - gra wczyta wszystko sama
+                System.out.println("Start: " + name + " nieudane: " + error);
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private static void warmGlyphs() { //Rasteryzacja tekstu i emoji w skali ekranu - te same wpisy, których użyje pierwsze rysowanie
+        double scale = GraphicsEnvironment.isHeadless() ? 1.0
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().getDefaultTransform().getScaleX();
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.scale(scale, scale);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        for (Font font : GameWindow.fonts()) {
+            g.setFont(font);
+            g.drawString(SAMPLE_TEXT, 0, 32);
+        }
+        IconCache icons = IconCache.getDefault();
+        for (int flag = 0; flag < FlagRegistry.count(); flag++) {
+            icons.flagIcon(flag).paintIcon(null, g, 0, 0);
+        }
+        g.dispose();
+    }
+
+    private static void loadClasses() {
+        ClassLoader loader = Startup.class.getClassLoader();
+        for (String name : PRELOADED_CLASSES) {
+            try {
+                Class.forName(name, false, loader);
+            } catch (ClassNotFoundException error) {
+                System.out.println("Start: brak klasy " + name);
+            }
+        }
+    }
+
+    public static void menuShown() { //Wywoływane na EDT po pierwszym rysowaniu menu
+        if (menuShownAt != 0) return;
+        menuShownAt = System.nanoTime();
+        System.out.println("Start: menu po " + millis(menuShownAt - LAUNCHED) + " ms od main (" + sinceProcessStart() + ")");
+    }
+
+    public static void gameRequested() { //Kliknięcie "Nowa Gra" / "Wczytaj Grę"
+        if (!firstEventLogged) gameRequestedAt = System.nanoTime();
+    }
+
+    public static boolean isFirstEventPending() {
+        return !firstEventLogged;
+    }
+
+    public static void eventShown() { //Pierwsze wydarzenie na ekranie - tylko raz na uruchomienie
+        if (firstEventLogged) return;
+        firstEventLogged = true;
+        long now = System.nanoTime();
+        System.out.println("Start: pierwsze wydarzenie po " + millis(now - gameRequestedAt) + " ms od kliknięcia, "
+                + millis(now - LAUNCHED) + " ms od main");
+    }
+
+    private static String sinceProcessStart() { //Łącznie z uruchomieniem JVM
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis() + " ms od uruchomienia procesu")
+                .orElse("czas procesu nieznany");
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
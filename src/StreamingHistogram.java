@@ -0,0 +1,135 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StreamingHistogram { // Histogram logarytmiczno-liniowy (jak HDR) - zapis bez blokad z wielu wątków, łączenie wyników z wielu źródeł
+
+    static final int SUB_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BITS; // 32 przedziały na każdą potęgę dwójki - błąd względny do ~3%
+    static final int EXACT_LIMIT = 2 * SUB_BUCKETS; // Wartości 0..63 liczone dokładnie
+    static final int BUCKETS = SUB_BUCKETS * (Long.SIZE - SUB_BITS); // Do Long.MAX_VALUE
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS); // Bez pasków - równoczesne zapisy zwykle trafiają w różne przedziały
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    static int bucketOf(long value) {
+        if (value < EXACT_LIMIT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return SUB_BUCKETS * (shift + 1) + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long lowestValue(int bucket) {
+        if (bucket < EXACT_LIMIT) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+
+    static long highestValue(int bucket) {
+        if (bucket == BUCKETS - 1) return Long.MAX_VALUE;
+        return lowestValue(bucket + 1) - 1;
+    }
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) max.accumulate(value); // Zwykle tylko odczyt
+    }
+
+    public void remove(long value) { //Odwrotność record - np. cofnięty koniec gry; maksimum się nie cofa
+        if (value < 0) value = 0;
+        counts.decrementAndGet(bucketOf(value));
+        count.decrement();
+        sum.add(-value);
+    }
+
+    public void merge(StreamingHistogram other) { //Np. wyniki kilku uruchomień symulacji - przedziały są wszędzie te same
+        for (int b = 0; b < BUCKETS; b++) {
+            long n = other.counts.get(b);
+            if (n != 0) counts.addAndGet(b, n);
+        }
+        count.add(other.count.sum());
+        sum.add(other.sum.sum());
+        max.accumulate(other.max.get());
+    }
+
+    public void reset() {
+        for (int b = 0; b < BUCKETS; b++) counts.set(b, 0);
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double mean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    public long[] counts() { //Migawka przedziałów - zapisujący nie są zatrzymywani
+        long[] snapshot = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) snapshot[b] = counts.get(b);
+        return snapshot;
+    }
+
+    public long valueAtQuantile(double quantile) { //Górna granica przedziału, w którym wypada kwantyl
+        long[] snapshot = counts();
+        long n = 0;
+        for (long c : snapshot) n += c;
+        return valueAtQuantile(snapshot, n, quantile);
+    }
+
+    private static long valueAtQuantile(long[] snapshot, long n, double quantile) {
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += snapshot[b];
+            if (seen >= rank) return highestValue(b);
+        }
+        return highestValue(BUCKETS - 1);
+    }
+
+    public Snapshot snapshot() { //Odczyt nie zatrzymuje zapisujących - wartości mogą się minimalnie rozjechać
+        long[] snapshot = counts();
+        long n = 0;
+        for (long c : snapshot) n += c;
+        long maxValue = max.get();
+        return new Snapshot(n, n == 0 ? 0 : (double) sum.sum() / n,
+                Math.min(maxValue, valueAtQuantile(snapshot, n, 0.50)), Math.min(maxValue, valueAtQuantile(snapshot, n, 0.90)),
+                Math.min(maxValue, valueAtQuantile(snapshot, n, 0.99)), maxValue);
+    }
+
+    public static class Snapshot { //Widoczny w JMX jako CompositeData
+        private final long count;
+        private final double mean;
+        private final long p50, p90, p99, max;
+
+        public Snapshot(long count, double mean, long p50, long p90, long p99, long max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public long getCount() { return count; }
+        public double getMean() { return mean; }
+        public long getP50() { return p50; }
+        public long getP90() { return p90; }
+        public long getP99() { return p99; }
+        public long getMax() { return max; }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d średnia=%.0f p50<=%d p90<=%d p99<=%d max=%d", count, mean, p50, p90, p99, max);
+        }
+    }
+}